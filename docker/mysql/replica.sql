@@ -0,0 +1,20 @@
+-- ============================================
+-- Inicialización de la réplica de lectura
+-- Sistema de Gestión de Citas - Neita's Barber Shop
+-- ============================================
+-- Solo se usa con docker-compose.replica.yml. La réplica sigue al primario
+-- por GTID, de modo que no hace falta conocer fichero ni posición del binlog.
+
+CHANGE REPLICATION SOURCE TO
+    SOURCE_HOST = 'mysql',
+    SOURCE_PORT = 3306,
+    SOURCE_USER = 'root',
+    SOURCE_PASSWORD = 'root',
+    SOURCE_AUTO_POSITION = 1,
+    GET_SOURCE_PUBLIC_KEY = 1;
+
+START REPLICA;
+
+-- Ni siquiera root puede escribir en la réplica; el hilo de replicación sí.
+-- Se persiste porque el servidor de inicialización se reinicia tras este script.
+SET PERSIST super_read_only = ON;
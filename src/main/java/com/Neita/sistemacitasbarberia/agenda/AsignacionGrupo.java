@@ -0,0 +1,49 @@
+package com.Neita.sistemacitasbarberia.agenda;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Emparejamiento bipartito participante -> profesional con caminos de aumento (Kuhn).
+// Los grupos son pequeños, así que O(V·E) resuelve cada hora candidata al instante.
+public final class AsignacionGrupo {
+
+    private AsignacionGrupo() {
+    }
+
+    // Devuelve el profesional asignado a cada participante, en el mismo orden, o null si no hay
+    // forma de atender a todos con profesionales distintos
+    public static List<Long> resolver(List<List<Long>> candidatosPorParticipante) {
+        Map<Long, Integer> participantePorProfesional = new HashMap<>();
+        for (int participante = 0; participante < candidatosPorParticipante.size(); participante++) {
+            if (!aumentar(participante, candidatosPorParticipante, participantePorProfesional, new HashSet<>())) {
+                return null;
+            }
+        }
+
+        List<Long> asignacion = new ArrayList<>(candidatosPorParticipante.size());
+        for (int i = 0; i < candidatosPorParticipante.size(); i++) {
+            asignacion.add(null);
+        }
+        participantePorProfesional.forEach((profesional, participante) -> asignacion.set(participante, profesional));
+        return asignacion;
+    }
+
+    private static boolean aumentar(int participante, List<List<Long>> candidatos,
+                                    Map<Long, Integer> participantePorProfesional, Set<Long> visitados) {
+        for (Long profesional : candidatos.get(participante)) {
+            if (!visitados.add(profesional)) {
+                continue;
+            }
+            Integer ocupante = participantePorProfesional.get(profesional);
+            if (ocupante == null || aumentar(ocupante, candidatos, participantePorProfesional, visitados)) {
+                participantePorProfesional.put(profesional, participante);
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+package com.Neita.sistemacitasbarberia.agenda;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+
+// Coloca la cita donde menos fragmenta la agenda: premia encajar pegada a otras citas y
+// penaliza dejar huecos demasiado cortos para venderse. A igualdad, llena antes la agenda
+// más ocupada para conservar bloques largos libres en las demás.
+@Component
+public class AsignacionMenorHueco implements EstrategiaAsignacion {
+
+    private static final int PENALIZACION_HUECO_INVENDIBLE = 1000;
+    private static final int PENALIZACION_HUECO_VENDIBLE = 10;
+
+    private final int huecoMinimoSlots;
+
+    public AsignacionMenorHueco(@Value("${agenda.asignacion.hueco-minimo-minutos:30}") int huecoMinimoMinutos) {
+        this.huecoMinimoSlots = MapaSlots.slotsPara(huecoMinimoMinutos);
+    }
+
+    @Override
+    public Optional<Long> elegir(Map<Long, MapaSlots> libresPorProfesional, int slotInicio, int cantidadSlots) {
+        Long mejor = null;
+        long mejorPuntuacion = Long.MAX_VALUE;
+        for (Map.Entry<Long, MapaSlots> candidato : libresPorProfesional.entrySet()) {
+            MapaSlots libre = candidato.getValue();
+            if (!libre.estaLibre(slotInicio, cantidadSlots)) {
+                continue;
+            }
+            long puntuacion = (long) (penalizacion(libre.libresAntes(slotInicio))
+                    + penalizacion(libre.libresDesde(slotInicio + cantidadSlots))) * MapaSlots.SLOTS_POR_DIA
+                    + libre.contarLibres();
+            if (puntuacion < mejorPuntuacion
+                    || (puntuacion == mejorPuntuacion && candidato.getKey() < mejor)) {
+                mejor = candidato.getKey();
+                mejorPuntuacion = puntuacion;
+            }
+        }
+        return Optional.ofNullable(mejor);
+    }
+
+    private int penalizacion(int huecoSlots) {
+        if (huecoSlots == 0) {
+            return 0;
+        }
+        return huecoSlots < huecoMinimoSlots ? PENALIZACION_HUECO_INVENDIBLE : PENALIZACION_HUECO_VENDIBLE;
+    }
+}
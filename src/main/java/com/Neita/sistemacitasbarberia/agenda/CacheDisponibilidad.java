@@ -0,0 +1,104 @@
+package com.Neita.sistemacitasbarberia.agenda;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Caché de los mapas de franjas libres por (profesional, día) con un contador de versión
+// creciente por profesional. Cada escritura sube el contador y anota la versión en el día
+// afectado; una entrada es válida si se calculó con una versión igual o posterior.
+// Así una cita nueva solo invalida su día y no el resto de la agenda del profesional.
+@Component
+public class CacheDisponibilidad {
+
+    public record Estadisticas(long aciertos, long fallos, long obsoletas, int entradas, double ratioAciertos) {
+    }
+
+    private record Clave(Long profesionalId, LocalDate fecha) {
+    }
+
+    private record Entrada(long version, long epoca, MapaSlots mapa) {
+    }
+
+    private final Map<Clave, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> versiones = new ConcurrentHashMap<>();
+    private final Map<Clave, Long> versionPorDia = new ConcurrentHashMap<>();
+    private final Map<Long, Long> versionTodosLosDias = new ConcurrentHashMap<>();
+    // Cambios que afectan a todos los profesionales, como el calendario de excepciones
+    private final AtomicLong epoca = new AtomicLong();
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder obsoletas = new LongAdder();
+
+    // Devuelve una copia modificable; el cálculo se hace fuera de cualquier bloqueo
+    public MapaSlots obtener(Long profesionalId, LocalDate fecha, Supplier<MapaSlots> calcular) {
+        Clave clave = new Clave(profesionalId, fecha);
+        Entrada entrada = entradas.get(clave);
+        if (entrada != null && vigente(clave, entrada)) {
+            aciertos.increment();
+            return entrada.mapa().copia();
+        }
+        if (entrada == null) {
+            fallos.increment();
+        } else {
+            obsoletas.increment();
+        }
+
+        // La versión se lee antes de calcular: si hay una escritura a mitad, la entrada nace obsoleta
+        long version = contador(profesionalId).get();
+        long epocaActual = epoca.get();
+        MapaSlots mapa = calcular.get();
+        entradas.put(clave, new Entrada(version, epocaActual, mapa.copia()));
+        return mapa;
+    }
+
+    public void invalidarDia(Long profesionalId, LocalDate fecha) {
+        long version = contador(profesionalId).incrementAndGet();
+        versionPorDia.merge(new Clave(profesionalId, fecha), version, Math::max);
+    }
+
+    public void invalidarProfesional(Long profesionalId) {
+        long version = contador(profesionalId).incrementAndGet();
+        versionTodosLosDias.merge(profesionalId, version, Math::max);
+    }
+
+    public void invalidarTodo() {
+        epoca.incrementAndGet();
+    }
+
+    public long version(Long profesionalId) {
+        return contador(profesionalId).get();
+    }
+
+    public Estadisticas estadisticas() {
+        long totalAciertos = aciertos.sum();
+        long consultas = totalAciertos + fallos.sum() + obsoletas.sum();
+        return new Estadisticas(totalAciertos, fallos.sum(), obsoletas.sum(), entradas.size(),
+                consultas == 0 ? 0.0 : (double) totalAciertos / consultas);
+    }
+
+    // Los días pasados ya no se consultan; se descartan cada noche
+    @Scheduled(cron = "0 5 0 * * *")
+    public void purgarDiasPasados() {
+        LocalDate hoy = LocalDate.now();
+        entradas.keySet().removeIf(clave -> clave.fecha().isBefore(hoy));
+        versionPorDia.keySet().removeIf(clave -> clave.fecha().isBefore(hoy));
+    }
+
+    private boolean vigente(Clave clave, Entrada entrada) {
+        long minima = Math.max(versionPorDia.getOrDefault(clave, 0L),
+                versionTodosLosDias.getOrDefault(clave.profesionalId(), 0L));
+        return entrada.version() >= minima && entrada.epoca() == epoca.get();
+    }
+
+    private AtomicLong contador(Long profesionalId) {
+        return versiones.computeIfAbsent(profesionalId, k -> new AtomicLong());
+    }
+}
@@ -0,0 +1,119 @@
+package com.Neita.sistemacitasbarberia.agenda;
+
+import com.Neita.sistemacitasbarberia.config.LecturaPrimario;
+import com.Neita.sistemacitasbarberia.entity.ExcepcionHorario;
+import com.Neita.sistemacitasbarberia.entity.ExcepcionHorario.TipoExcepcion;
+import com.Neita.sistemacitasbarberia.repository.ExcepcionHorarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Excepciones vigentes desplegadas en un mapa disperso por día: solo existen entradas
+// para los días afectados, así que consultar un día cuesta O(1). El mapa se reconstruye
+// completo tras el commit de cualquier cambio, que son poco frecuentes.
+@Component
+@RequiredArgsConstructor
+public class CalendarioExcepciones {
+
+    private record Ajuste(TipoExcepcion tipo, int desde, int hasta) {
+    }
+
+    private record Calendario(Map<LocalDate, List<Ajuste>> generales,
+                              Map<Long, Map<LocalDate, List<Ajuste>>> porProfesional) {
+    }
+
+    private final ExcepcionHorarioRepository excepcionHorarioRepository;
+    private final CacheDisponibilidad cacheDisponibilidad;
+    private final LecturaPrimario lecturaPrimario;
+
+    private volatile Calendario calendario;
+    // Sube con cada invalidación: una carga que leyó antes del último commit no se publica
+    private long version;
+
+    public boolean tieneAjustes(Long profesionalId, LocalDate fecha) {
+        Calendario actual = obtener();
+        return actual.generales().containsKey(fecha)
+                || actual.porProfesional().getOrDefault(profesionalId, Map.of()).containsKey(fecha);
+    }
+
+    // Aplica sobre el mapa laboral primero los turnos extra y después los cierres y reducciones,
+    // de modo que un cierre siempre prevalece sobre un turno extra del mismo día
+    public MapaSlots aplicar(Long profesionalId, LocalDate fecha, MapaSlots mapa) {
+        Calendario actual = obtener();
+        List<Ajuste> ajustes = new ArrayList<>(actual.generales().getOrDefault(fecha, List.of()));
+        ajustes.addAll(actual.porProfesional().getOrDefault(profesionalId, Map.of()).getOrDefault(fecha, List.of()));
+
+        for (Ajuste ajuste : ajustes) {
+            if (ajuste.tipo() == TipoExcepcion.TURNO_EXTRA) {
+                mapa.marcar(ajuste.desde(), ajuste.hasta());
+            }
+        }
+        for (Ajuste ajuste : ajustes) {
+            if (ajuste.tipo() == TipoExcepcion.CERRADO) {
+                mapa.limpiar(ajuste.desde(), ajuste.hasta());
+            } else if (ajuste.tipo() == TipoExcepcion.HORARIO_REDUCIDO) {
+                mapa.and(new MapaSlots().marcar(ajuste.desde(), ajuste.hasta()));
+            }
+        }
+        return mapa;
+    }
+
+    public void invalidarTrasCommit() {
+        TrasCommit.ejecutar(() -> {
+            synchronized (this) {
+                version++;
+                calendario = null;
+            }
+            cacheDisponibilidad.invalidarTodo();
+        });
+    }
+
+    // La consulta corre fuera del monitor para que la invalidación tras un commit no espere a la base de datos
+    private Calendario obtener() {
+        Calendario actual = calendario;
+        if (actual != null) {
+            return actual;
+        }
+        long leida;
+        synchronized (this) {
+            if (calendario != null) {
+                return calendario;
+            }
+            leida = version;
+        }
+        Calendario cargado = cargar();
+        synchronized (this) {
+            if (version == leida && calendario == null) {
+                calendario = cargado;
+            }
+        }
+        return cargado;
+    }
+
+    private Calendario cargar() {
+        Map<LocalDate, List<Ajuste>> generales = new HashMap<>();
+        Map<Long, Map<LocalDate, List<Ajuste>>> porProfesional = new HashMap<>();
+        LocalDate hoy = LocalDate.now();
+
+        for (ExcepcionHorario excepcion : lecturaPrimario.ejecutar(() -> excepcionHorarioRepository.findVigentesDesde(hoy))) {
+            Ajuste ajuste = excepcion.esDiaCompleto()
+                    ? new Ajuste(excepcion.getTipo(), 0, MapaSlots.SLOTS_POR_DIA)
+                    : new Ajuste(excepcion.getTipo(), MapaSlots.slotInicio(excepcion.getHoraInicio()),
+                                 MapaSlots.slotFin(excepcion.getHoraFin().toSecondOfDay() / 60));
+            Map<LocalDate, List<Ajuste>> destino = excepcion.getProfesional() == null
+                    ? generales
+                    : porProfesional.computeIfAbsent(excepcion.getProfesional().getId(), k -> new HashMap<>());
+
+            LocalDate desde = excepcion.getFechaInicio().isBefore(hoy) ? hoy : excepcion.getFechaInicio();
+            for (LocalDate dia = desde; !dia.isAfter(excepcion.getFechaFin()); dia = dia.plusDays(1)) {
+                destino.computeIfAbsent(dia, k -> new ArrayList<>()).add(ajuste);
+            }
+        }
+        return new Calendario(generales, porProfesional);
+    }
+}
@@ -0,0 +1,154 @@
+package com.Neita.sistemacitasbarberia.agenda;
+
+import com.Neita.sistemacitasbarberia.exception.ConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Carriles de escritura por profesional: las reservas de un mismo profesional se
+// serializan en la JVM y las de profesionales distintos avanzan en paralelo.
+// El carril se toma fuera de la transacción para no retener conexiones mientras se espera.
+@Component
+public class CarrilesReserva {
+
+    private static final Logger logger = LoggerFactory.getLogger(CarrilesReserva.class);
+
+    private static final int INTENTOS_RESOLVER = 3;
+
+    private final Map<Long, Carril> carriles = new ConcurrentHashMap<>();
+
+    @Value("${agenda.carriles.espera-maxima-ms:5000}")
+    private long esperaMaximaMs;
+
+    public <T> T ejecutar(Long profesionalId, Supplier<T> accion) {
+        return ejecutar(List.of(profesionalId), accion);
+    }
+
+    public void ejecutar(Long profesionalId, Runnable accion) {
+        ejecutar(List.of(profesionalId), () -> {
+            accion.run();
+            return null;
+        });
+    }
+
+    // Para operaciones sobre una cita existente: el profesional se lee antes de tomar el carril y se
+    // vuelve a leer dentro, porque una reasignación pudo mover la cita mientras se esperaba
+    public <T> T ejecutarParaCita(Supplier<Long> profesionalDeCita, Supplier<T> accion) {
+        return ejecutarResolviendo(() -> List.of(profesionalDeCita.get()), accion);
+    }
+
+    public void ejecutarParaCita(Supplier<Long> profesionalDeCita, Runnable accion) {
+        ejecutarParaCita(profesionalDeCita, () -> {
+            accion.run();
+            return null;
+        });
+    }
+
+    // Los profesionales a bloquear salen de una consulta que puede cambiar mientras se espera
+    // (alta de un servicio, reasignación): dentro de los carriles se resuelven otra vez y, si
+    // aparece alguno que no se tomó, se reintenta con el conjunto nuevo
+    public <T> T ejecutarResolviendo(Supplier<? extends Collection<Long>> resolver, Supplier<T> accion) {
+        Set<Long> profesionalIds = new TreeSet<>(resolver.get());
+        for (int intento = 1; intento <= INTENTOS_RESOLVER; intento++) {
+            Set<Long> tomados = profesionalIds;
+            Intento<T> resultado = ejecutar(tomados, () -> {
+                Set<Long> actuales = new TreeSet<>(resolver.get());
+                return tomados.containsAll(actuales)
+                        ? new Intento<>(true, accion.get(), actuales)
+                        : new Intento<>(false, null, actuales);
+            });
+            if (resultado.ejecutado()) {
+                return resultado.valor();
+            }
+            logger.debug("Profesionales a bloquear cambiaron de {} a {} mientras se esperaba el carril",
+                    tomados, resultado.profesionalIds());
+            profesionalIds = resultado.profesionalIds();
+        }
+        throw new ConflictException("La agenda cambió durante la operación, intente de nuevo");
+    }
+
+    // Toma los carriles en orden ascendente de profesional para evitar interbloqueos
+    public <T> T ejecutar(Collection<Long> profesionalIds, Supplier<T> accion) {
+        List<Carril> tomados = new ArrayList<>();
+        try {
+            for (Long profesionalId : new TreeSet<>(profesionalIds)) {
+                Carril carril = carriles.computeIfAbsent(profesionalId, Carril::new);
+                carril.entrar(esperaMaximaMs);
+                tomados.add(carril);
+            }
+            return accion.get();
+        } finally {
+            Collections.reverse(tomados);
+            tomados.forEach(Carril::salir);
+        }
+    }
+
+    public List<Metrica> metricas() {
+        return carriles.values().stream()
+                .map(Carril::metrica)
+                .sorted(Comparator.comparing(Metrica::profesionalId))
+                .toList();
+    }
+
+    private record Intento<T>(boolean ejecutado, T valor, Set<Long> profesionalIds) {
+    }
+
+    public record Metrica(Long profesionalId, int enCola, boolean ocupado, long adquisiciones,
+                          double esperaPromedioMs, double esperaMaximaMs, long rechazos) {
+    }
+
+    private static class Carril {
+
+        private final Long profesionalId;
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private final LongAdder adquisiciones = new LongAdder();
+        private final LongAdder esperaTotalNanos = new LongAdder();
+        private final AtomicLong esperaMaximaNanos = new AtomicLong();
+        private final LongAdder rechazos = new LongAdder();
+
+        Carril(Long profesionalId) {
+            this.profesionalId = profesionalId;
+        }
+
+        void entrar(long esperaMaximaMs) {
+            long inicio = System.nanoTime();
+            boolean adquirido;
+            try {
+                adquirido = lock.tryLock(esperaMaximaMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                adquirido = false;
+            }
+            long espera = System.nanoTime() - inicio;
+
+            if (!adquirido) {
+                rechazos.increment();
+                logger.warn("Tiempo de espera agotado en el carril del profesional {}", profesionalId);
+                throw new ConflictException("La agenda del profesional está ocupada, intente de nuevo");
+            }
+            adquisiciones.increment();
+            esperaTotalNanos.add(espera);
+            esperaMaximaNanos.accumulateAndGet(espera, Math::max);
+        }
+
+        void salir() {
+            lock.unlock();
+        }
+
+        Metrica metrica() {
+            long total = adquisiciones.sum();
+            double promedio = total == 0 ? 0 : esperaTotalNanos.sum() / (double) total / 1_000_000;
+            return new Metrica(profesionalId, lock.getQueueLength(), lock.isLocked(), total,
+                    promedio, esperaMaximaNanos.get() / 1_000_000.0, rechazos.sum());
+        }
+    }
+}
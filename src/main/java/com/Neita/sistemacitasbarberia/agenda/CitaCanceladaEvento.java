@@ -0,0 +1,7 @@
+package com.Neita.sistemacitasbarberia.agenda;
+
+import java.time.LocalDateTime;
+
+// Se publica dentro de la transacción que cancela la cita; los oyentes lo reciben tras el commit
+public record CitaCanceladaEvento(Long citaId, Long profesionalId, LocalDateTime fechaHora, int duracionMinutos) {
+}
@@ -0,0 +1,11 @@
+package com.Neita.sistemacitasbarberia.agenda;
+
+import java.util.Map;
+import java.util.Optional;
+
+// Elige el profesional para una reserva sin preferencia a partir de las franjas libres
+// del día de cada candidato
+public interface EstrategiaAsignacion {
+
+    Optional<Long> elegir(Map<Long, MapaSlots> libresPorProfesional, int slotInicio, int cantidadSlots);
+}
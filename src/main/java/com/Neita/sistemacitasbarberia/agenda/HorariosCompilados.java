@@ -0,0 +1,110 @@
+package com.Neita.sistemacitasbarberia.agenda;
+
+import com.Neita.sistemacitasbarberia.config.LecturaPrimario;
+import com.Neita.sistemacitasbarberia.entity.HorarioProfesional;
+import com.Neita.sistemacitasbarberia.entity.HorarioProfesional.TipoTramo;
+import com.Neita.sistemacitasbarberia.repository.HorarioProfesionalRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Horario semanal de cada profesional compilado a un mapa de franjas por día de la semana.
+// Se compila una vez por profesional y se invalida tras el commit de cualquier cambio.
+// Sin horario configurado se usa la apertura y el cierre generales de la barbería.
+// Las excepciones del calendario se superponen al consultar cada fecha concreta.
+@Component
+@RequiredArgsConstructor
+public class HorariosCompilados {
+
+    private final HorarioProfesionalRepository horarioProfesionalRepository;
+    private final CalendarioExcepciones calendarioExcepciones;
+    private final CacheDisponibilidad cacheDisponibilidad;
+    private final LecturaPrimario lecturaPrimario;
+
+    private final Map<Long, MapaSlots[]> compilados = new ConcurrentHashMap<>();
+
+    @Value("${agenda.horario.apertura:09:00}")
+    private LocalTime apertura;
+
+    @Value("${agenda.horario.cierre:19:00}")
+    private LocalTime cierre;
+
+    // Copia modificable con las franjas laborables del día
+    public MapaSlots mapaLaboral(Long profesionalId, LocalDate fecha) {
+        MapaSlots mapa = semana(profesionalId)[fecha.getDayOfWeek().ordinal()].copia();
+        return calendarioExcepciones.tieneAjustes(profesionalId, fecha)
+                ? calendarioExcepciones.aplicar(profesionalId, fecha, mapa)
+                : mapa;
+    }
+
+    // Comprueba que [fechaHora, fechaHora + duración) cae por completo dentro de la jornada
+    public boolean dentroDeJornada(Long profesionalId, LocalDateTime fechaHora, int duracionMinutos) {
+        int minutoInicio = fechaHora.toLocalTime().toSecondOfDay() / 60;
+        if (minutoInicio + duracionMinutos > MapaSlots.SLOTS_POR_DIA * MapaSlots.MINUTOS_POR_SLOT) {
+            return false;
+        }
+        int desde = minutoInicio / MapaSlots.MINUTOS_POR_SLOT;
+        int hasta = MapaSlots.slotFin(minutoInicio + duracionMinutos);
+        LocalDate fecha = fechaHora.toLocalDate();
+        MapaSlots jornada = calendarioExcepciones.tieneAjustes(profesionalId, fecha)
+                ? mapaLaboral(profesionalId, fecha)
+                : semana(profesionalId)[fecha.getDayOfWeek().ordinal()];
+        return jornada.estaLibre(desde, hasta - desde);
+    }
+
+    public void invalidarTrasCommit(Long profesionalId) {
+        TrasCommit.ejecutar(() -> {
+            compilados.remove(profesionalId);
+            cacheDisponibilidad.invalidarProfesional(profesionalId);
+        });
+    }
+
+    private MapaSlots[] semana(Long profesionalId) {
+        return compilados.computeIfAbsent(profesionalId, this::compilar);
+    }
+
+    private MapaSlots[] compilar(Long profesionalId) {
+        List<HorarioProfesional> tramos = lecturaPrimario.ejecutar(() -> horarioProfesionalRepository
+                .findByProfesionalIdOrderByDiaSemanaAscHoraInicioAsc(profesionalId));
+        MapaSlots[] semana = new MapaSlots[DayOfWeek.values().length];
+
+        if (tramos.isEmpty()) {
+            MapaSlots general = new MapaSlots().marcar(MapaSlots.slotInicio(apertura), slotCierre(cierre));
+            for (int dia = 0; dia < semana.length; dia++) {
+                semana[dia] = general;
+            }
+            return semana;
+        }
+
+        MapaSlots[] descansos = new MapaSlots[semana.length];
+        for (int dia = 0; dia < semana.length; dia++) {
+            semana[dia] = new MapaSlots();
+            descansos[dia] = new MapaSlots();
+        }
+        for (HorarioProfesional tramo : tramos) {
+            MapaSlots destino = tramo.getTipo() == TipoTramo.DESCANSO
+                    ? descansos[tramo.getDiaSemana().ordinal()]
+                    : semana[tramo.getDiaSemana().ordinal()];
+            destino.marcar(MapaSlots.slotInicio(tramo.getHoraInicio()), slotCierre(tramo.getHoraFin()));
+        }
+        for (int dia = 0; dia < semana.length; dia++) {
+            semana[dia].andNot(descansos[dia]);
+        }
+        return semana;
+    }
+
+    // Las 00:00 como hora de fin significan el final del día
+    private static int slotCierre(LocalTime hora) {
+        return hora.equals(LocalTime.MIDNIGHT)
+                ? MapaSlots.SLOTS_POR_DIA
+                : MapaSlots.slotFin(hora.toSecondOfDay() / 60);
+    }
+}
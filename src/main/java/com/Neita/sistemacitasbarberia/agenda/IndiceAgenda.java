@@ -0,0 +1,232 @@
+package com.Neita.sistemacitasbarberia.agenda;
+
+import com.Neita.sistemacitasbarberia.config.LecturaPrimario;
+import com.Neita.sistemacitasbarberia.entity.Cita;
+import com.Neita.sistemacitasbarberia.repository.CitaRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Índice en memoria de las citas activas de cada profesional.
+// Se carga de forma perezosa por profesional y se actualiza solo tras el commit
+// de cada transacción que modifica una cita. Las cargas y los cambios confirmados se
+// serializan con el monitor del índice; la consulta de cada carga corre fuera de él.
+@Component
+@RequiredArgsConstructor
+public class IndiceAgenda {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceAgenda.class);
+
+    private final CitaRepository citaRepository;
+    private final CacheDisponibilidad cacheDisponibilidad;
+    private final RegistroCambiosAgenda registroCambios;
+    private final LecturaPrimario lecturaPrimario;
+
+    private final Map<Long, IndiceIntervalos> indices = new ConcurrentHashMap<>();
+    private final Map<Long, Long> profesionalPorCita = new ConcurrentHashMap<>();
+    // Cargas en curso: los cambios confirmados mientras se consulta se aplican al instalar el índice
+    private final Map<Long, Carga> cargas = new HashMap<>();
+
+    private static final class Carga {
+        private final CompletableFuture<IndiceIntervalos> resultado = new CompletableFuture<>();
+        private final List<RegistroCambiosAgenda.Cambio> cambios = new ArrayList<>();
+    }
+
+    public boolean hayConflicto(Long profesionalId, LocalDateTime fechaHora, int duracionMinutos, Long citaIdExcluir) {
+        long inicio = IndiceIntervalos.aMinutoEpoch(fechaHora);
+        return obtener(profesionalId).hayConflicto(inicio, inicio + duracionMinutos, citaIdExcluir);
+    }
+
+    public IndiceIntervalos obtener(Long profesionalId) {
+        IndiceIntervalos indice = indices.get(profesionalId);
+        return indice != null ? indice : cargar(profesionalId);
+    }
+
+    // Refleja el estado de la cita en el índice una vez confirmada la transacción
+    public void registrarTrasCommit(Cita cita) {
+        Long citaId = cita.getId();
+        Long profesionalId = cita.getProfesional().getId();
+        boolean activa = cita.estaActiva();
+        long inicio = IndiceIntervalos.aMinutoEpoch(cita.getFechaHora());
+        long fin = inicio + cita.getServicio().getDuracionEnMinutos();
+        TrasCommit.ejecutar(() -> {
+            if (activa) {
+                registrar(citaId, profesionalId, inicio, fin);
+            } else {
+                quitar(citaId);
+            }
+        });
+    }
+
+    public void quitarTrasCommit(Long citaId) {
+        TrasCommit.ejecutar(() -> quitar(citaId));
+    }
+
+    public void quitarTrasCommit(Collection<Long> citaIds) {
+        List<Long> copia = List.copyOf(citaIds);
+        TrasCommit.ejecutar(() -> copia.forEach(this::quitar));
+    }
+
+    public int profesionalesCargados() {
+        return indices.size();
+    }
+
+    // Reconstruye los índices cargados desde la base de datos y registra cualquier divergencia
+    @Scheduled(fixedDelayString = "${agenda.indice.verificacion-ms:300000}",
+               initialDelayString = "${agenda.indice.verificacion-ms:300000}")
+    public void verificarContraBaseDeDatos() {
+        for (Map.Entry<Long, IndiceIntervalos> entrada : indices.entrySet()) {
+            Long profesionalId = entrada.getKey();
+            IndiceIntervalos actual = entrada.getValue();
+            long modificacionesPrevias = actual.getModificaciones();
+            List<Cita> citas = consultar(profesionalId);
+
+            synchronized (this) {
+                // Si hubo escrituras durante la recarga se deja para la siguiente verificación
+                if (actual.getModificaciones() != modificacionesPrevias || indices.get(profesionalId) != actual) {
+                    continue;
+                }
+                IndiceIntervalos recargado = construir(citas);
+                Set<IndiceIntervalos.Intervalo> esperado = recargado.contenido();
+                if (!esperado.equals(actual.contenido())) {
+                    logger.warn("Índice de agenda desincronizado para profesional {}: {} en memoria, {} en base de datos",
+                            profesionalId, actual.tamano(), esperado.size());
+                }
+                indices.put(profesionalId, recargado);
+                actual.contenido().forEach(i -> profesionalPorCita.remove(i.id(), profesionalId));
+                esperado.forEach(i -> profesionalPorCita.put(i.id(), profesionalId));
+                cacheDisponibilidad.invalidarProfesional(profesionalId);
+            }
+        }
+    }
+
+    // Contenido de los profesionales cargados para la instantánea en disco, capturado junto con la
+    // rotación del registro de cambios. Se toma el monitor del índice antes que el del registro,
+    // el mismo orden que registrar y quitar, para no interbloquearse con un commit simultáneo.
+    synchronized <T> T capturarRotando(long nuevaGeneracion, Function<Map<Long, Set<IndiceIntervalos.Intervalo>>, T> captura) {
+        return registroCambios.rotar(nuevaGeneracion, () -> {
+            Map<Long, Set<IndiceIntervalos.Intervalo>> contenido = new HashMap<>();
+            indices.forEach((profesionalId, indice) -> contenido.put(profesionalId, indice.contenido()));
+            return captura.apply(contenido);
+        });
+    }
+
+    // Instala un índice restaurado salvo que una petición ya lo haya cargado desde la base de datos
+    synchronized void restaurar(Long profesionalId, Collection<IndiceIntervalos.Intervalo> intervalos) {
+        if (indices.containsKey(profesionalId) || cargas.containsKey(profesionalId)) {
+            return;
+        }
+        IndiceIntervalos indice = new IndiceIntervalos();
+        intervalos.forEach(i -> indice.registrar(i.id(), i.inicio(), i.fin()));
+        indices.put(profesionalId, indice);
+        intervalos.forEach(i -> profesionalPorCita.put(i.id(), profesionalId));
+    }
+
+    // Una sola carga por profesional; las peticiones concurrentes esperan a la que está en curso
+    private IndiceIntervalos cargar(Long profesionalId) {
+        Carga carga;
+        Carga enCurso;
+        synchronized (this) {
+            IndiceIntervalos existente = indices.get(profesionalId);
+            if (existente != null) {
+                return existente;
+            }
+            enCurso = cargas.get(profesionalId);
+            carga = enCurso != null ? enCurso : new Carga();
+            cargas.putIfAbsent(profesionalId, carga);
+        }
+        // Se espera fuera del monitor: la carga lo necesita para instalar el índice
+        if (enCurso != null) {
+            return enCurso.resultado.join();
+        }
+
+        try {
+            List<Cita> citas = consultar(profesionalId);
+            IndiceIntervalos indice;
+            synchronized (this) {
+                indice = construir(citas);
+                // Una cita ya asignada a otro profesional por un commit posterior a la consulta conserva esa asignación
+                indice.contenido().forEach(i -> profesionalPorCita.putIfAbsent(i.id(), profesionalId));
+                for (RegistroCambiosAgenda.Cambio cambio : carga.cambios) {
+                    if (cambio.registrar()) {
+                        indice.registrar(cambio.citaId(), cambio.inicio(), cambio.fin());
+                    } else if (indice.quitar(cambio.citaId())) {
+                        profesionalPorCita.remove(cambio.citaId(), profesionalId);
+                    }
+                }
+                indices.put(profesionalId, indice);
+                cargas.remove(profesionalId);
+            }
+            carga.resultado.complete(indice);
+            logger.debug("Índice de agenda cargado para profesional {} con {} citas activas", profesionalId, citas.size());
+            return indice;
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                cargas.remove(profesionalId);
+            }
+            carga.resultado.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    // Del primario: una réplica retrasada dejaría fuera citas ya confirmadas que registrar no repone
+    private List<Cita> consultar(Long profesionalId) {
+        LocalDateTime desde = LocalDate.now().atStartOfDay();
+        return lecturaPrimario.ejecutar(() -> citaRepository.findCitasActivasDesdeByProfesional(profesionalId, desde));
+    }
+
+    private static IndiceIntervalos construir(List<Cita> citas) {
+        IndiceIntervalos indice = new IndiceIntervalos();
+        for (Cita cita : citas) {
+            long inicio = IndiceIntervalos.aMinutoEpoch(cita.getFechaHora());
+            indice.registrar(cita.getId(), inicio, inicio + cita.getServicio().getDuracionEnMinutos());
+        }
+        return indice;
+    }
+
+    private synchronized void registrar(Long citaId, Long profesionalId, long inicio, long fin) {
+        Long anterior = profesionalPorCita.put(citaId, profesionalId);
+        if (anterior != null && !anterior.equals(profesionalId)) {
+            IndiceIntervalos indiceAnterior = indices.get(anterior);
+            if (indiceAnterior != null) {
+                indiceAnterior.quitar(citaId);
+            }
+        }
+        // Si el profesional aún no está cargado, la carga perezosa ya leerá la cita confirmada
+        IndiceIntervalos indice = indices.get(profesionalId);
+        if (indice != null) {
+            indice.registrar(citaId, inicio, fin);
+        }
+        // La consulta de una carga en curso pudo leer el estado anterior al commit
+        cargas.forEach((cargando, carga) -> carga.cambios.add(cargando.equals(profesionalId)
+                ? new RegistroCambiosAgenda.Cambio(true, citaId, profesionalId, inicio, fin)
+                : new RegistroCambiosAgenda.Cambio(false, citaId, cargando, 0, 0)));
+        registroCambios.anotarRegistro(citaId, profesionalId, inicio, fin);
+    }
+
+    private synchronized void quitar(Long citaId) {
+        Long profesionalId = profesionalPorCita.remove(citaId);
+        if (profesionalId != null) {
+            IndiceIntervalos indice = indices.get(profesionalId);
+            if (indice != null) {
+                indice.quitar(citaId);
+            }
+            registroCambios.anotarQuitar(citaId, profesionalId);
+        }
+        cargas.forEach((cargando, carga) -> carga.cambios.add(new RegistroCambiosAgenda.Cambio(false, citaId, cargando, 0, 0)));
+    }
+}
@@ -0,0 +1,138 @@
+package com.Neita.sistemacitasbarberia.agenda;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice de intervalos [inicio, fin) en minutos epoch para la agenda de un profesional.
+// Las consultas de solapamiento recorren solo las entradas cuyo inicio cae en
+// (inicio - duracionMaxima, fin), por lo que cuestan O(log n + k).
+public class IndiceIntervalos {
+
+    public record Intervalo(Long id, long inicio, long fin) {
+
+        public boolean solapa(long otroInicio, long otroFin) {
+            return inicio < otroFin && fin > otroInicio;
+        }
+    }
+
+    private final NavigableMap<Long, Map<Long, Intervalo>> porInicio = new TreeMap<>();
+    private final Map<Long, Intervalo> porId = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long duracionMaxima = 0;
+    private long modificaciones = 0;
+
+    public static long aMinutoEpoch(LocalDateTime fechaHora) {
+        return fechaHora.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    public static LocalDateTime desdeMinutoEpoch(long minuto) {
+        return LocalDateTime.ofEpochSecond(minuto * 60, 0, ZoneOffset.UTC);
+    }
+
+    public void registrar(Long id, long inicio, long fin) {
+        lock.writeLock().lock();
+        try {
+            quitarSinBloqueo(id);
+            Intervalo intervalo = new Intervalo(id, inicio, fin);
+            porInicio.computeIfAbsent(inicio, k -> new HashMap<>()).put(id, intervalo);
+            porId.put(id, intervalo);
+            duracionMaxima = Math.max(duracionMaxima, fin - inicio);
+            modificaciones++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean quitar(Long id) {
+        lock.writeLock().lock();
+        try {
+            boolean quitado = quitarSinBloqueo(id);
+            if (quitado) {
+                modificaciones++;
+            }
+            return quitado;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean hayConflicto(long inicio, long fin, Long idExcluir) {
+        lock.readLock().lock();
+        try {
+            for (Map<Long, Intervalo> grupo : candidatos(inicio, fin)) {
+                for (Intervalo intervalo : grupo.values()) {
+                    if (!intervalo.id().equals(idExcluir) && intervalo.solapa(inicio, fin)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Intervalo> solapados(long inicio, long fin) {
+        lock.readLock().lock();
+        try {
+            List<Intervalo> resultado = new ArrayList<>();
+            for (Map<Long, Intervalo> grupo : candidatos(inicio, fin)) {
+                for (Intervalo intervalo : grupo.values()) {
+                    if (intervalo.solapa(inicio, fin)) {
+                        resultado.add(intervalo);
+                    }
+                }
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Set<Intervalo> contenido() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(porId.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getModificaciones() {
+        lock.readLock().lock();
+        try {
+            return modificaciones;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tamano() {
+        lock.readLock().lock();
+        try {
+            return porId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<Map<Long, Intervalo>> candidatos(long inicio, long fin) {
+        return porInicio.subMap(inicio - duracionMaxima, false, fin, false).values();
+    }
+
+    private boolean quitarSinBloqueo(Long id) {
+        Intervalo anterior = porId.remove(id);
+        if (anterior == null) {
+            return false;
+        }
+        Map<Long, Intervalo> grupo = porInicio.get(anterior.inicio());
+        grupo.remove(id);
+        if (grupo.isEmpty()) {
+            porInicio.remove(anterior.inicio());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,123 @@
+package com.Neita.sistemacitasbarberia.agenda;
+
+import com.Neita.sistemacitasbarberia.entity.ListaEspera;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Ventanas de la lista de espera activas, indexadas por profesional. Un hueco liberado
+// se cruza solo con las ventanas que lo solapan, sin volver a leer la tabla.
+@Component
+public class IndiceListaEspera {
+
+    public record Entrada(Long id, Long usuarioId, Long profesionalId, Long servicioId,
+                          int duracionMinutos, long ventanaInicio, long ventanaFin) {
+
+        // Primer inicio dentro del hueco [inicio, fin) donde cabe el servicio sin salir de la ventana
+        public Optional<Long> inicioDentroDe(long inicio, long fin) {
+            long desde = Math.max(inicio, ventanaInicio);
+            long hasta = Math.min(fin, ventanaFin);
+            return desde + duracionMinutos <= hasta ? Optional.of(desde) : Optional.empty();
+        }
+    }
+
+    public record Coincidencia(Entrada entrada, LocalDateTime fechaHora) {
+    }
+
+    private final Map<Long, IndiceIntervalos> ventanas = new ConcurrentHashMap<>();
+    private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+    // Retenciones ofrecidas a solicitudes de la lista, para cerrarlas al confirmar o al caducar
+    private final Map<Long, Long> solicitudPorRetencion = new ConcurrentHashMap<>();
+
+    // Los cambios de la tabla se reflejan en el índice solo si la transacción se confirma
+    public void registrarTrasCommit(ListaEspera solicitud) {
+        Long id = solicitud.getId();
+        Long usuarioId = solicitud.getUsuario().getId();
+        Long profesionalId = solicitud.getProfesional().getId();
+        Long servicioId = solicitud.getServicio().getId();
+        int duracionMinutos = solicitud.getServicio().getDuracionEnMinutos();
+        LocalDateTime ventanaInicio = solicitud.getVentanaInicio();
+        LocalDateTime ventanaFin = solicitud.getVentanaFin();
+        TrasCommit.ejecutar(() -> registrar(id, usuarioId, profesionalId, servicioId, duracionMinutos, ventanaInicio, ventanaFin));
+    }
+
+    public void quitarTrasCommit(Long id) {
+        TrasCommit.ejecutar(() -> quitar(id));
+    }
+
+    public void registrar(Long id, Long usuarioId, Long profesionalId, Long servicioId,
+                          int duracionMinutos, LocalDateTime ventanaInicio, LocalDateTime ventanaFin) {
+        reponer(new Entrada(id, usuarioId, profesionalId, servicioId, duracionMinutos,
+                IndiceIntervalos.aMinutoEpoch(ventanaInicio), IndiceIntervalos.aMinutoEpoch(ventanaFin)));
+    }
+
+    public void reponer(Entrada entrada) {
+        entradas.put(entrada.id(), entrada);
+        ventanas.computeIfAbsent(entrada.profesionalId(), k -> new IndiceIntervalos())
+                .registrar(entrada.id(), entrada.ventanaInicio(), entrada.ventanaFin());
+    }
+
+    public boolean quitar(Long id) {
+        Entrada entrada = entradas.remove(id);
+        if (entrada == null) {
+            return false;
+        }
+        IndiceIntervalos indice = ventanas.get(entrada.profesionalId());
+        if (indice != null) {
+            indice.quitar(id);
+        }
+        return true;
+    }
+
+    public void registrarOfertaTrasCommit(Long retencionId, Long solicitudId) {
+        TrasCommit.ejecutar(() -> solicitudPorRetencion.put(retencionId, solicitudId));
+    }
+
+    public Optional<Long> solicitudOfrecida(Long retencionId) {
+        return Optional.ofNullable(solicitudPorRetencion.get(retencionId));
+    }
+
+    public Optional<Long> quitarOferta(Long retencionId) {
+        return Optional.ofNullable(solicitudPorRetencion.remove(retencionId));
+    }
+
+    public void quitarOfertaTrasCommit(Long retencionId) {
+        TrasCommit.ejecutar(() -> solicitudPorRetencion.remove(retencionId));
+    }
+
+    // Quita las solicitudes cuya ventana ya terminó; devuelve cuántas
+    public int purgarVencidas(LocalDateTime ahora) {
+        long minutoActual = IndiceIntervalos.aMinutoEpoch(ahora);
+        int purgadas = 0;
+        for (Entrada entrada : entradas.values()) {
+            if (entrada.ventanaFin() <= minutoActual && quitar(entrada.id())) {
+                purgadas++;
+            }
+        }
+        return purgadas;
+    }
+
+    // La solicitud más antigua cuya ventana admite el servicio dentro del hueco liberado
+    public Optional<Coincidencia> mejorCoincidencia(Long profesionalId, LocalDateTime fechaHora, int duracionMinutos) {
+        IndiceIntervalos indice = ventanas.get(profesionalId);
+        if (indice == null) {
+            return Optional.empty();
+        }
+        long inicio = IndiceIntervalos.aMinutoEpoch(fechaHora);
+        long fin = inicio + duracionMinutos;
+        return indice.solapados(inicio, fin).stream()
+                .map(intervalo -> entradas.get(intervalo.id()))
+                .filter(entrada -> entrada != null && entrada.inicioDentroDe(inicio, fin).isPresent())
+                .min(Comparator.comparing(Entrada::id))
+                .map(entrada -> new Coincidencia(entrada,
+                        IndiceIntervalos.desdeMinutoEpoch(entrada.inicioDentroDe(inicio, fin).get())));
+    }
+
+    public int tamano() {
+        return entradas.size();
+    }
+}
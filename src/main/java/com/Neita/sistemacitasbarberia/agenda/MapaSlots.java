@@ -0,0 +1,178 @@
+package com.Neita.sistemacitasbarberia.agenda;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Mapa de bits de un día: un bit por franja de 5 minutos (288 franjas en 5 longs).
+// Un bit encendido significa que la franja está libre para reservar.
+public class MapaSlots {
+
+    public static final int MINUTOS_POR_SLOT = 5;
+    public static final int SLOTS_POR_DIA = 24 * 60 / MINUTOS_POR_SLOT;
+
+    private static final int PALABRAS = (SLOTS_POR_DIA + 63) / 64;
+
+    private final long[] bits;
+
+    public MapaSlots() {
+        this.bits = new long[PALABRAS];
+    }
+
+    private MapaSlots(long[] bits) {
+        this.bits = bits;
+    }
+
+    public static int slotInicio(LocalTime hora) {
+        return hora.toSecondOfDay() / 60 / MINUTOS_POR_SLOT;
+    }
+
+    // Franja final exclusiva: redondea hacia arriba para cubrir minutos parciales
+    public static int slotFin(int minutoDelDia) {
+        return Math.min(SLOTS_POR_DIA, (minutoDelDia + MINUTOS_POR_SLOT - 1) / MINUTOS_POR_SLOT);
+    }
+
+    public static int slotsPara(int minutos) {
+        return (minutos + MINUTOS_POR_SLOT - 1) / MINUTOS_POR_SLOT;
+    }
+
+    public static LocalTime horaDe(int slot) {
+        return LocalTime.ofSecondOfDay((long) slot * MINUTOS_POR_SLOT * 60);
+    }
+
+    public MapaSlots copia() {
+        return new MapaSlots(bits.clone());
+    }
+
+    // Enciende las franjas [desde, hasta)
+    public MapaSlots marcar(int desde, int hasta) {
+        int fin = Math.min(hasta, SLOTS_POR_DIA);
+        for (int slot = Math.max(0, desde); slot < fin; ) {
+            int palabra = slot >>> 6;
+            int finPalabra = Math.min(fin, (palabra + 1) << 6);
+            bits[palabra] |= mascara(slot, finPalabra);
+            slot = finPalabra;
+        }
+        return this;
+    }
+
+    // Apaga las franjas [desde, hasta)
+    public MapaSlots limpiar(int desde, int hasta) {
+        int fin = Math.min(hasta, SLOTS_POR_DIA);
+        for (int slot = Math.max(0, desde); slot < fin; ) {
+            int palabra = slot >>> 6;
+            int finPalabra = Math.min(fin, (palabra + 1) << 6);
+            bits[palabra] &= ~mascara(slot, finPalabra);
+            slot = finPalabra;
+        }
+        return this;
+    }
+
+    public MapaSlots and(MapaSlots otro) {
+        for (int i = 0; i < PALABRAS; i++) {
+            bits[i] &= otro.bits[i];
+        }
+        return this;
+    }
+
+    public MapaSlots or(MapaSlots otro) {
+        for (int i = 0; i < PALABRAS; i++) {
+            bits[i] |= otro.bits[i];
+        }
+        return this;
+    }
+
+    public MapaSlots andNot(MapaSlots otro) {
+        for (int i = 0; i < PALABRAS; i++) {
+            bits[i] &= ~otro.bits[i];
+        }
+        return this;
+    }
+
+    public boolean estaLibre(int slot) {
+        return slot >= 0 && slot < SLOTS_POR_DIA && (bits[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    // Comprueba que las franjas [desde, desde + cantidad) estén todas libres
+    public boolean estaLibre(int desde, int cantidad) {
+        if (desde < 0 || desde + cantidad > SLOTS_POR_DIA) {
+            return false;
+        }
+        int fin = desde + cantidad;
+        for (int slot = desde; slot < fin; ) {
+            int palabra = slot >>> 6;
+            int finPalabra = Math.min(fin, (palabra + 1) << 6);
+            long mascara = mascara(slot, finPalabra);
+            if ((bits[palabra] & mascara) != mascara) {
+                return false;
+            }
+            slot = finPalabra;
+        }
+        return true;
+    }
+
+    // Franjas de inicio alineadas a 'paso' donde caben 'cantidad' franjas libres consecutivas
+    public List<Integer> iniciosLibres(int cantidad, int paso, int desde) {
+        List<Integer> inicios = new ArrayList<>();
+        int primero = ((Math.max(0, desde) + paso - 1) / paso) * paso;
+        for (int slot = primero; slot + cantidad <= SLOTS_POR_DIA; slot += paso) {
+            if (estaLibre(slot, cantidad)) {
+                inicios.add(slot);
+            }
+        }
+        return inicios;
+    }
+
+    // Franjas libres consecutivas que terminan justo antes de 'slot'
+    public int libresAntes(int slot) {
+        int cantidad = 0;
+        for (int actual = slot - 1; estaLibre(actual); actual--) {
+            cantidad++;
+        }
+        return cantidad;
+    }
+
+    // Franjas libres consecutivas a partir de 'slot' (incluido)
+    public int libresDesde(int slot) {
+        int cantidad = 0;
+        for (int actual = slot; estaLibre(actual); actual++) {
+            cantidad++;
+        }
+        return cantidad;
+    }
+
+    public int contarLibres() {
+        int total = 0;
+        for (long palabra : bits) {
+            total += Long.bitCount(palabra);
+        }
+        return total;
+    }
+
+    public boolean estaVacio() {
+        for (long palabra : bits) {
+            if (palabra != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Máscara de los bits [desde, hasta) dentro de una misma palabra
+    private static long mascara(int desde, int hasta) {
+        int cantidad = hasta - desde;
+        long bitsCantidad = cantidad == 64 ? -1L : (1L << cantidad) - 1;
+        return bitsCantidad << (desde & 63);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MapaSlots otro && Arrays.equals(bits, otro.bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bits);
+    }
+}
@@ -0,0 +1,154 @@
+package com.Neita.sistemacitasbarberia.agenda;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Registro de cambios del índice de agenda desde la última instantánea, en un fichero
+// mapeado en memoria de capacidad fija. Las escrituras van a la caché de páginas del
+// sistema, por lo que sobreviven a un reinicio del proceso sin coste de sincronización.
+@Component
+public class RegistroCambiosAgenda {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistroCambiosAgenda.class);
+
+    private static final int MAGICO = 0x41474C47;
+    // magico, generacion, cantidad, desbordado
+    private static final int CABECERA = 4 + 8 + 4 + 1;
+    // operacion, citaId, profesionalId, inicio, fin
+    private static final int TAMANO_REGISTRO = 1 + 8 * 4;
+
+    private static final byte REGISTRAR = 1;
+    private static final byte QUITAR = 2;
+
+    public record Cambio(boolean registrar, long citaId, long profesionalId, long inicio, long fin) {
+    }
+
+    private final boolean habilitado;
+    private final Path fichero;
+    private final int capacidad;
+
+    private MappedByteBuffer buffer;
+    private long generacion;
+    private int cantidad;
+    private boolean desbordado;
+
+    public RegistroCambiosAgenda(@Value("${agenda.snapshot.habilitado:true}") boolean habilitado,
+                                 @Value("${agenda.snapshot.directorio:data/agenda}") String directorio,
+                                 @Value("${agenda.snapshot.capacidad-registro:65536}") int capacidad) {
+        this.habilitado = habilitado;
+        this.fichero = Path.of(directorio, "agenda.log");
+        this.capacidad = capacidad;
+    }
+
+    @PostConstruct
+    public synchronized void abrir() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            Files.createDirectories(fichero.getParent());
+            long tamano = CABECERA + (long) capacidad * TAMANO_REGISTRO;
+            try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                boolean valido = canal.size() == tamano;
+                buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamano);
+                if (valido && buffer.getInt(0) == MAGICO) {
+                    generacion = buffer.getLong(4);
+                    cantidad = Math.min(buffer.getInt(12), capacidad);
+                    desbordado = buffer.get(16) != 0;
+                } else {
+                    reiniciar(0);
+                }
+            }
+        } catch (IOException ex) {
+            // Sin registro la agenda sigue funcionando; solo se pierde el arranque rápido
+            logger.warn("No se pudo abrir el registro de cambios de agenda en {}", fichero, ex);
+            buffer = null;
+        }
+    }
+
+    public synchronized void anotarRegistro(long citaId, long profesionalId, long inicio, long fin) {
+        anotar(REGISTRAR, citaId, profesionalId, inicio, fin);
+    }
+
+    public synchronized void anotarQuitar(long citaId, long profesionalId) {
+        anotar(QUITAR, citaId, profesionalId, 0, 0);
+    }
+
+    // Cambios anotados para la generación indicada; vacío si el registro pertenece a otra
+    public synchronized List<Cambio> leer(long generacionEsperada) {
+        List<Cambio> cambios = new ArrayList<>();
+        if (buffer == null || generacion != generacionEsperada) {
+            return cambios;
+        }
+        if (desbordado) {
+            logger.warn("El registro de cambios de agenda se desbordó; la verificación periódica completará el índice");
+        }
+        for (int i = 0; i < cantidad; i++) {
+            int posicion = CABECERA + i * TAMANO_REGISTRO;
+            cambios.add(new Cambio(buffer.get(posicion) == REGISTRAR,
+                    buffer.getLong(posicion + 1), buffer.getLong(posicion + 9),
+                    buffer.getLong(posicion + 17), buffer.getLong(posicion + 25)));
+        }
+        return cambios;
+    }
+
+    // Captura el estado y vacía el registro en una misma sección crítica: todo cambio
+    // queda en la captura o en el registro de la nueva generación
+    public synchronized <T> T rotar(long nuevaGeneracion, Supplier<T> captura) {
+        T resultado = captura.get();
+        reiniciar(nuevaGeneracion);
+        return resultado;
+    }
+
+    private void reiniciar(long nuevaGeneracion) {
+        if (buffer == null) {
+            return;
+        }
+        generacion = nuevaGeneracion;
+        cantidad = 0;
+        desbordado = false;
+        buffer.putInt(0, MAGICO);
+        buffer.putLong(4, generacion);
+        buffer.putInt(12, 0);
+        buffer.put(16, (byte) 0);
+    }
+
+    public synchronized int getCantidad() {
+        return cantidad;
+    }
+
+    private void anotar(byte operacion, long citaId, long profesionalId, long inicio, long fin) {
+        if (buffer == null || desbordado) {
+            return;
+        }
+        if (cantidad == capacidad) {
+            desbordado = true;
+            buffer.put(16, (byte) 1);
+            logger.warn("Registro de cambios de agenda lleno ({} cambios) hasta la próxima instantánea", capacidad);
+            return;
+        }
+        int posicion = CABECERA + cantidad * TAMANO_REGISTRO;
+        buffer.put(posicion, operacion);
+        buffer.putLong(posicion + 1, citaId);
+        buffer.putLong(posicion + 9, profesionalId);
+        buffer.putLong(posicion + 17, inicio);
+        buffer.putLong(posicion + 25, fin);
+        // La cantidad se publica después del registro para no leer nunca uno a medias
+        cantidad++;
+        buffer.putInt(12, cantidad);
+    }
+}
@@ -0,0 +1,7 @@
+package com.Neita.sistemacitasbarberia.agenda;
+
+import java.time.LocalDateTime;
+
+// Se publica cuando una retención caduca o el cliente la suelta sin confirmarla: su franja vuelve a quedar libre
+public record RetencionLiberadaEvento(Long retencionId, Long profesionalId, LocalDateTime fechaHora, int duracionMinutos) {
+}
@@ -0,0 +1,130 @@
+package com.Neita.sistemacitasbarberia.agenda;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Retenciones temporales de franjas. Viven solo en memoria hasta que se confirman
+// como cita y caducan mediante la rueda temporal, sin consultas periódicas a la base de datos.
+@Component
+@RequiredArgsConstructor
+public class RetencionesAgenda {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetencionesAgenda.class);
+
+    public record Retencion(Long id, Long usuarioId, Long profesionalId, Long servicioId,
+                            LocalDateTime fechaHora, int duracionMinutos, LocalDateTime expira) {
+    }
+
+    private final RuedaTemporal ruedaTemporal;
+    private final CacheDisponibilidad cacheDisponibilidad;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicLong secuencia = new AtomicLong();
+    private final Map<Long, Retencion> retenciones = new ConcurrentHashMap<>();
+    private final Map<Long, RuedaTemporal.Tarea> expiraciones = new ConcurrentHashMap<>();
+    private final Map<Long, IndiceIntervalos> indices = new ConcurrentHashMap<>();
+
+    public Retencion retener(Long usuarioId, Long profesionalId, Long servicioId,
+                             LocalDateTime fechaHora, int duracionMinutos, Duration vigencia) {
+        Long id = secuencia.incrementAndGet();
+        Retencion retencion = new Retencion(id, usuarioId, profesionalId, servicioId,
+                fechaHora, duracionMinutos, LocalDateTime.now().plus(vigencia));
+
+        long inicio = IndiceIntervalos.aMinutoEpoch(fechaHora);
+        indices.computeIfAbsent(profesionalId, k -> new IndiceIntervalos())
+                .registrar(id, inicio, inicio + duracionMinutos);
+        retenciones.put(id, retencion);
+        cacheDisponibilidad.invalidarDia(profesionalId, fechaHora.toLocalDate());
+        expiraciones.put(id, ruedaTemporal.programar(vigencia, () -> expirar(id)));
+        return retencion;
+    }
+
+    public Optional<Retencion> obtener(Long id) {
+        return Optional.ofNullable(retenciones.get(id));
+    }
+
+    // El cliente suelta la franja sin reservarla
+    public boolean liberar(Long id) {
+        cancelarExpiracion(id);
+        Retencion retencion = quitar(id);
+        if (retencion == null) {
+            return false;
+        }
+        publicarLiberacion(retencion);
+        return true;
+    }
+
+    // La retención se ha convertido en cita: la franja sigue ocupada y no se anuncia como libre
+    public boolean consumir(Long id) {
+        cancelarExpiracion(id);
+        return quitar(id) != null;
+    }
+
+    // Retira una retención que no llegó a ofrecerse sin anunciar su franja, que volvería a ofrecerse
+    public boolean descartar(Long id) {
+        return consumir(id);
+    }
+
+    public boolean hayConflicto(Long profesionalId, LocalDateTime fechaHora, int duracionMinutos, Long retencionIdExcluir) {
+        IndiceIntervalos indice = indices.get(profesionalId);
+        if (indice == null) {
+            return false;
+        }
+        long inicio = IndiceIntervalos.aMinutoEpoch(fechaHora);
+        return indice.hayConflicto(inicio, inicio + duracionMinutos, retencionIdExcluir);
+    }
+
+    public List<IndiceIntervalos.Intervalo> solapadas(Long profesionalId, long inicio, long fin) {
+        IndiceIntervalos indice = indices.get(profesionalId);
+        return indice == null ? List.of() : indice.solapados(inicio, fin);
+    }
+
+    public int activas() {
+        return retenciones.size();
+    }
+
+    private void expirar(Long id) {
+        expiraciones.remove(id);
+        Retencion retencion = quitar(id);
+        if (retencion != null) {
+            logger.debug("Retención {} expirada", id);
+            publicarLiberacion(retencion);
+        }
+    }
+
+    private void cancelarExpiracion(Long id) {
+        RuedaTemporal.Tarea expiracion = expiraciones.remove(id);
+        if (expiracion != null) {
+            expiracion.cancelar();
+        }
+    }
+
+    private void publicarLiberacion(Retencion retencion) {
+        eventPublisher.publishEvent(new RetencionLiberadaEvento(retencion.id(), retencion.profesionalId(),
+                retencion.fechaHora(), retencion.duracionMinutos()));
+    }
+
+    private Retencion quitar(Long id) {
+        Retencion retencion = retenciones.remove(id);
+        if (retencion == null) {
+            return null;
+        }
+        IndiceIntervalos indice = indices.get(retencion.profesionalId());
+        if (indice != null) {
+            indice.quitar(id);
+        }
+        cacheDisponibilidad.invalidarDia(retencion.profesionalId(), retencion.fechaHora().toLocalDate());
+        return retencion;
+    }
+}
@@ -0,0 +1,153 @@
+package com.Neita.sistemacitasbarberia.agenda;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Rueda de temporización jerárquica con tic de 1 segundo: segundos (60), minutos (60)
+// y horas (24). Programar y cancelar cuesta O(1) y cada tic solo toca una cubeta,
+// sin recorrer todas las tareas pendientes.
+@Component
+public class RuedaTemporal {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuedaTemporal.class);
+
+    private static final int[] TAMANO_NIVEL = {60, 60, 24};
+    private static final long[] TICS_POR_CUBETA = {1, 60, 3600};
+
+    public static class Tarea {
+
+        private final long vencimiento;
+        private final Runnable accion;
+        private volatile boolean cancelada;
+
+        private Tarea(long vencimiento, Runnable accion) {
+            this.vencimiento = vencimiento;
+            this.accion = accion;
+        }
+
+        public void cancelar() {
+            cancelada = true;
+        }
+    }
+
+    private final List<List<List<Tarea>>> niveles = new ArrayList<>();
+    private final List<Tarea> desbordadas = new ArrayList<>();
+    private final long inicioNanos = System.nanoTime();
+    private long ticActual = 0;
+    private int pendientes = 0;
+    private ScheduledExecutorService reloj;
+
+    public RuedaTemporal() {
+        for (int tamano : TAMANO_NIVEL) {
+            List<List<Tarea>> cubetas = new ArrayList<>(tamano);
+            for (int i = 0; i < tamano; i++) {
+                cubetas.add(new ArrayList<>());
+            }
+            niveles.add(cubetas);
+        }
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        reloj = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "rueda-temporal");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        reloj.scheduleAtFixedRate(this::avanzarHastaAhora, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (reloj != null) {
+            reloj.shutdownNow();
+        }
+    }
+
+    public synchronized Tarea programar(Duration retraso, Runnable accion) {
+        long tics = Math.max(1, (retraso.toMillis() + 999) / 1000);
+        Tarea tarea = new Tarea(ticActual + tics, accion);
+        ubicar(tarea);
+        pendientes++;
+        return tarea;
+    }
+
+    public synchronized int getPendientes() {
+        return pendientes;
+    }
+
+    private void avanzarHastaAhora() {
+        long objetivo = (System.nanoTime() - inicioNanos) / 1_000_000_000L;
+        List<Tarea> vencidas = new ArrayList<>();
+        synchronized (this) {
+            while (ticActual < objetivo) {
+                avanzarUnTic(vencidas);
+            }
+        }
+        for (Tarea tarea : vencidas) {
+            try {
+                tarea.accion.run();
+            } catch (RuntimeException ex) {
+                logger.error("Error ejecutando tarea de la rueda temporal", ex);
+            }
+        }
+    }
+
+    private void avanzarUnTic(List<Tarea> vencidas) {
+        ticActual++;
+
+        // Al completar una vuelta de un nivel inferior se redistribuye la cubeta del nivel superior
+        for (int nivel = niveles.size() - 1; nivel >= 1; nivel--) {
+            if (ticActual % TICS_POR_CUBETA[nivel] == 0) {
+                if (nivel == niveles.size() - 1 && ticActual % (TICS_POR_CUBETA[nivel] * TAMANO_NIVEL[nivel]) == 0) {
+                    List<Tarea> reubicar = new ArrayList<>(desbordadas);
+                    desbordadas.clear();
+                    reubicar.forEach(this::ubicar);
+                }
+                List<Tarea> cubeta = niveles.get(nivel).get(indice(nivel, ticActual));
+                List<Tarea> reubicar = new ArrayList<>(cubeta);
+                cubeta.clear();
+                reubicar.forEach(this::ubicar);
+            }
+        }
+
+        List<Tarea> cubeta = niveles.get(0).get(indice(0, ticActual));
+        for (Tarea tarea : cubeta) {
+            pendientes--;
+            if (!tarea.cancelada) {
+                vencidas.add(tarea);
+            }
+        }
+        cubeta.clear();
+    }
+
+    private void ubicar(Tarea tarea) {
+        long restante = tarea.vencimiento - ticActual;
+        if (restante <= 0) {
+            // Solo ocurre al redistribuir: la cubeta del tic actual se procesa a continuación
+            niveles.get(0).get(indice(0, ticActual)).add(tarea);
+            return;
+        }
+        for (int nivel = 0; nivel < niveles.size(); nivel++) {
+            if (restante < TICS_POR_CUBETA[nivel] * TAMANO_NIVEL[nivel]) {
+                niveles.get(nivel).get(indice(nivel, tarea.vencimiento)).add(tarea);
+                return;
+            }
+        }
+        desbordadas.add(tarea);
+    }
+
+    private int indice(int nivel, long tic) {
+        return (int) ((tic / TICS_POR_CUBETA[nivel]) % TAMANO_NIVEL[nivel]);
+    }
+}
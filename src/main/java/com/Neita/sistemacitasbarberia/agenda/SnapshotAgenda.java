@@ -0,0 +1,209 @@
+package com.Neita.sistemacitasbarberia.agenda;
+
+import com.Neita.sistemacitasbarberia.entity.Cita;
+import com.Neita.sistemacitasbarberia.repository.CitaRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Instantánea en disco del índice de agenda para arrancar sin recargar todas las agendas
+// desde MySQL a la vez. Al arrancar se mapea la instantánea, se reproduce el registro de
+// cambios local y se reponen las citas modificadas en la base de datos desde la marca.
+// Los borrados hechos por otros nodos no dejan rastro y los corrige la verificación periódica.
+@Component
+public class SnapshotAgenda {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotAgenda.class);
+
+    private static final int MAGICO = 0x41474E53;
+    private static final int FORMATO = 1;
+    // magico, formato, generacion, marca, profesionales
+    private static final int CABECERA = 4 + 4 + 8 + 8 + 4;
+    // Margen para transacciones que escribieron antes de la marca pero confirmaron después
+    private static final long MARGEN_SEGUNDOS = 60;
+
+    private record Captura(long generacion, LocalDateTime marca, Map<Long, Set<IndiceIntervalos.Intervalo>> indices) {
+    }
+
+    private final IndiceAgenda indiceAgenda;
+    private final RegistroCambiosAgenda registroCambios;
+    private final CitaRepository citaRepository;
+    private final boolean habilitado;
+    private final Path fichero;
+
+    private long generacion;
+
+    public SnapshotAgenda(IndiceAgenda indiceAgenda,
+                          RegistroCambiosAgenda registroCambios,
+                          CitaRepository citaRepository,
+                          @Value("${agenda.snapshot.habilitado:true}") boolean habilitado,
+                          @Value("${agenda.snapshot.directorio:data/agenda}") String directorio) {
+        this.indiceAgenda = indiceAgenda;
+        this.registroCambios = registroCambios;
+        this.citaRepository = citaRepository;
+        this.habilitado = habilitado;
+        this.fichero = Path.of(directorio, "agenda.snapshot");
+    }
+
+    // Se restaura antes de aceptar peticiones: un commit entre la reposición y la instalación
+    // del índice restaurado no llegaría a reflejarse
+    @PostConstruct
+    public void restaurar() {
+        if (!habilitado || !Files.exists(fichero)) {
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        try {
+            Captura captura = leer();
+            if (captura == null) {
+                return;
+            }
+            generacion = captura.generacion();
+
+            Map<Long, Map<Long, IndiceIntervalos.Intervalo>> porProfesional = new HashMap<>();
+            Map<Long, Long> profesionalPorCita = new HashMap<>();
+            captura.indices().forEach((profesionalId, intervalos) -> {
+                Map<Long, IndiceIntervalos.Intervalo> porId = new HashMap<>();
+                intervalos.forEach(i -> {
+                    porId.put(i.id(), i);
+                    profesionalPorCita.put(i.id(), profesionalId);
+                });
+                porProfesional.put(profesionalId, porId);
+            });
+
+            List<RegistroCambiosAgenda.Cambio> cambios = registroCambios.leer(generacion);
+            for (RegistroCambiosAgenda.Cambio cambio : cambios) {
+                aplicar(porProfesional, profesionalPorCita, cambio.citaId(),
+                        cambio.registrar() ? cambio.profesionalId() : null, cambio.inicio(), cambio.fin());
+            }
+
+            List<Cita> modificadas = citaRepository.findModificadasDesde(captura.marca().minusSeconds(MARGEN_SEGUNDOS));
+            for (Cita cita : modificadas) {
+                long citaInicio = IndiceIntervalos.aMinutoEpoch(cita.getFechaHora());
+                aplicar(porProfesional, profesionalPorCita, cita.getId(),
+                        cita.estaActiva() ? cita.getProfesional().getId() : null,
+                        citaInicio, citaInicio + cita.getServicio().getDuracionEnMinutos());
+            }
+
+            // El índice solo guarda citas desde el inicio del día, igual que la carga perezosa
+            long inicioHoy = IndiceIntervalos.aMinutoEpoch(LocalDate.now().atStartOfDay());
+            porProfesional.forEach((profesionalId, porId) -> indiceAgenda.restaurar(profesionalId,
+                    porId.values().stream().filter(i -> i.inicio() >= inicioHoy).toList()));
+
+            logger.info("Agenda restaurada desde instantánea: {} profesionales, {} cambios locales, {} citas modificadas en {} ms",
+                    porProfesional.size(), cambios.size(), modificadas.size(), System.currentTimeMillis() - inicio);
+        } catch (IOException | RuntimeException ex) {
+            // Sin instantánea válida cada profesional se carga de forma perezosa como siempre
+            logger.warn("No se pudo restaurar la instantánea de agenda {}", fichero, ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${agenda.snapshot.intervalo-ms:60000}",
+               initialDelayString = "${agenda.snapshot.intervalo-ms:60000}")
+    @PreDestroy
+    public synchronized void guardar() {
+        if (!habilitado) {
+            return;
+        }
+        long nuevaGeneracion = generacion + 1;
+        Captura captura = indiceAgenda.capturarRotando(nuevaGeneracion,
+                contenido -> new Captura(nuevaGeneracion, LocalDateTime.now(), contenido));
+        try {
+            escribir(captura);
+            generacion = nuevaGeneracion;
+        } catch (IOException ex) {
+            // El registro ya es de la nueva generación y no se reproducirá sobre la instantánea anterior
+            logger.warn("No se pudo guardar la instantánea de agenda en {}", fichero, ex);
+        }
+    }
+
+    private void aplicar(Map<Long, Map<Long, IndiceIntervalos.Intervalo>> porProfesional,
+                         Map<Long, Long> profesionalPorCita,
+                         long citaId, Long profesionalId, long inicio, long fin) {
+        Long anterior = profesionalPorCita.remove(citaId);
+        if (anterior != null) {
+            porProfesional.get(anterior).remove(citaId);
+        }
+        // Solo se completan los profesionales presentes en la instantánea; el resto se carga bajo demanda
+        if (profesionalId != null && porProfesional.containsKey(profesionalId)) {
+            porProfesional.get(profesionalId).put(citaId, new IndiceIntervalos.Intervalo(citaId, inicio, fin));
+            profesionalPorCita.put(citaId, profesionalId);
+        }
+    }
+
+    private void escribir(Captura captura) throws IOException {
+        long tamano = CABECERA;
+        for (Set<IndiceIntervalos.Intervalo> intervalos : captura.indices().values()) {
+            tamano += 8 + 4 + (long) intervalos.size() * 24;
+        }
+
+        Files.createDirectories(fichero.getParent());
+        Path temporal = fichero.resolveSibling(fichero.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamano);
+            buffer.putInt(MAGICO)
+                    .putInt(FORMATO)
+                    .putLong(captura.generacion())
+                    .putLong(captura.marca().toEpochSecond(ZoneOffset.UTC))
+                    .putInt(captura.indices().size());
+            captura.indices().forEach((profesionalId, intervalos) -> {
+                buffer.putLong(profesionalId).putInt(intervalos.size());
+                for (IndiceIntervalos.Intervalo intervalo : intervalos) {
+                    buffer.putLong(intervalo.id()).putLong(intervalo.inicio()).putLong(intervalo.fin());
+                }
+            });
+            buffer.force();
+        }
+        // El reemplazo atómico garantiza que nunca se lea una instantánea a medio escribir
+        Files.move(temporal, fichero, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Captura leer() throws IOException {
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.READ)) {
+            if (canal.size() < CABECERA) {
+                return null;
+            }
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (buffer.getInt() != MAGICO || buffer.getInt() != FORMATO) {
+                logger.warn("Instantánea de agenda {} con formato desconocido, se ignora", fichero);
+                return null;
+            }
+            long generacionLeida = buffer.getLong();
+            LocalDateTime marca = LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC);
+            int profesionales = buffer.getInt();
+
+            Map<Long, Set<IndiceIntervalos.Intervalo>> indices = new HashMap<>();
+            for (int p = 0; p < profesionales; p++) {
+                long profesionalId = buffer.getLong();
+                int cantidad = buffer.getInt();
+                Set<IndiceIntervalos.Intervalo> intervalos = new HashSet<>(cantidad * 2);
+                for (int i = 0; i < cantidad; i++) {
+                    intervalos.add(new IndiceIntervalos.Intervalo(buffer.getLong(), buffer.getLong(), buffer.getLong()));
+                }
+                indices.put(profesionalId, intervalos);
+            }
+            return new Captura(generacionLeida, marca, indices);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.Neita.sistemacitasbarberia.agenda;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Aplaza cambios en estructuras en memoria hasta que la transacción actual se confirma.
+// Sin transacción activa la acción se ejecuta en el acto. Para cambios que deben aplicarse
+// antes del commit, siNoConfirma registra cómo deshacerlos si la transacción no se confirma.
+public final class TrasCommit {
+
+    private TrasCommit() {
+    }
+
+    public static void ejecutar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+
+    public static void siNoConfirma(Runnable deshacer) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int estado) {
+                if (estado != STATUS_COMMITTED) {
+                    deshacer.run();
+                }
+            }
+        });
+    }
+}
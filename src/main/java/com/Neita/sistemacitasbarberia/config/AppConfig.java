@@ -5,11 +5,18 @@ import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
 @EnableCaching
+@EnableScheduling
+@EnableAsync
 public class AppConfig {
 
     @Bean
@@ -21,6 +28,12 @@ public class AppConfig {
         return modelMapper;
     }
 
+    // Hilos virtuales para repartir cálculos de agenda entre profesionales
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService agendaExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
     @Bean
     public WebMvcConfigurer corsConfigurer() {
         return new WebMvcConfigurer() {
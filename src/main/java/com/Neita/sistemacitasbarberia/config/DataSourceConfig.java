@@ -0,0 +1,64 @@
+package com.Neita.sistemacitasbarberia.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Separación de lecturas y escrituras. Solo se activa si hay una réplica configurada;
+// sin ella Spring Boot crea el DataSource único de siempre.
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replica", name = "url")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primario");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${datasource.replica.url}") String url,
+            @Value("${datasource.replica.username:${spring.datasource.username}}") String usuario,
+            @Value("${datasource.replica.password:${spring.datasource.password}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(usuario)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public EnrutadorDataSource enrutadorDataSource(
+            @Qualifier("primarioDataSource") HikariDataSource primario,
+            @Qualifier("replicaDataSource") HikariDataSource replica,
+            @Value("${datasource.replica.ventana-lecturas-propias-ms:5000}") long ventanaMs) {
+        return new EnrutadorDataSource(primario, replica, new VentanaLecturasPropias(ventanaMs));
+    }
+
+    // DataSource que usan JPA y Flyway: sin transacción o con escritura se resuelve al primario
+    @Bean
+    @Primary
+    public DataSource dataSource(EnrutadorDataSource enrutador) {
+        return new LazyConnectionDataSourceProxy(enrutador);
+    }
+}
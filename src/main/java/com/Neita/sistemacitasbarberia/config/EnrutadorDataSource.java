@@ -0,0 +1,125 @@
+package com.Neita.sistemacitasbarberia.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Envía las transacciones readOnly a la réplica y todo lo demás al primario. Debe usarse
+// detrás de un LazyConnectionDataSourceProxy: la conexión se pide en la primera sentencia,
+// cuando la marca readOnly de la transacción ya está establecida.
+public class EnrutadorDataSource extends AbstractRoutingDataSource {
+
+    public enum Destino {
+        PRIMARIO,
+        REPLICA
+    }
+
+    public record MetricaPool(Destino destino, String nombre, long conexionesEntregadas,
+                              int activas, int inactivas, int total, int enEspera) {
+    }
+
+    // Lecturas de solo lectura que no pueden tolerar el retraso de la réplica
+    private static final ThreadLocal<Boolean> PRIMARIO_FORZADO = ThreadLocal.withInitial(() -> false);
+
+    private final HikariDataSource primario;
+    private final HikariDataSource replica;
+    private final VentanaLecturasPropias ventana;
+
+    private final LongAdder haciaPrimario = new LongAdder();
+    private final LongAdder haciaReplica = new LongAdder();
+    private final LongAdder lecturasPropias = new LongAdder();
+
+    public EnrutadorDataSource(HikariDataSource primario, HikariDataSource replica, VentanaLecturasPropias ventana) {
+        this.primario = primario;
+        this.replica = replica;
+        this.ventana = ventana;
+        setTargetDataSources(Map.of(Destino.PRIMARIO, primario, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+    }
+
+    public static <T> T enPrimario(Supplier<T> accion) {
+        boolean anterior = PRIMARIO_FORZADO.get();
+        PRIMARIO_FORZADO.set(true);
+        try {
+            return accion.get();
+        } finally {
+            if (anterior) {
+                PRIMARIO_FORZADO.set(true);
+            } else {
+                PRIMARIO_FORZADO.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String usuario = usuarioActual();
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (PRIMARIO_FORZADO.get()) {
+                haciaPrimario.increment();
+                return Destino.PRIMARIO;
+            }
+            if (usuario != null && ventana.dentroDeVentana(usuario)) {
+                lecturasPropias.increment();
+                haciaPrimario.increment();
+                return Destino.PRIMARIO;
+            }
+            haciaReplica.increment();
+            return Destino.REPLICA;
+        }
+
+        // La ventana empieza al confirmar: antes los cambios aún no existen ni en el primario
+        if (usuario != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ventana.marcar(usuario);
+                }
+            });
+        }
+        haciaPrimario.increment();
+        return Destino.PRIMARIO;
+    }
+
+    public List<MetricaPool> metricas() {
+        return List.of(metrica(Destino.PRIMARIO, primario, haciaPrimario.sum()),
+                metrica(Destino.REPLICA, replica, haciaReplica.sum()));
+    }
+
+    public long getLecturasPropias() {
+        return lecturasPropias.sum();
+    }
+
+    public int getUsuariosEnVentana() {
+        return ventana.tamano();
+    }
+
+    private MetricaPool metrica(Destino destino, HikariDataSource pool, long entregadas) {
+        // El MXBean no existe hasta que el pool abre su primera conexión
+        HikariPoolMXBean estado = pool.getHikariPoolMXBean();
+        if (estado == null) {
+            return new MetricaPool(destino, pool.getPoolName(), entregadas, 0, 0, 0, 0);
+        }
+        return new MetricaPool(destino, pool.getPoolName(), entregadas, estado.getActiveConnections(),
+                estado.getIdleConnections(), estado.getTotalConnections(), estado.getThreadsAwaitingConnection());
+    }
+
+    private String usuarioActual() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacion == null || !autenticacion.isAuthenticated()
+                || autenticacion instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return autenticacion.getName();
+    }
+}
@@ -0,0 +1,38 @@
+package com.Neita.sistemacitasbarberia.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+// Lecturas que deben ver el último commit aunque la transacción en curso sea de solo lectura:
+// las cargas de la agenda en memoria y los profesionales que deciden qué carril tomar.
+// Con réplica se hacen en una transacción propia forzada al primario; sin ella, tal cual.
+@Component
+public class LecturaPrimario {
+
+    private final boolean conReplica;
+    private final TransactionTemplate transaccionPropia;
+
+    public LecturaPrimario(PlatformTransactionManager transactionManager,
+                           ObjectProvider<EnrutadorDataSource> enrutador) {
+        this.conReplica = enrutador.getIfAvailable() != null;
+        this.transaccionPropia = new TransactionTemplate(transactionManager);
+        this.transaccionPropia.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transaccionPropia.setReadOnly(true);
+    }
+
+    public <T> T ejecutar(Supplier<T> lectura) {
+        // Una transacción de escritura ya está en el primario
+        if (!conReplica || (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return lectura.get();
+        }
+        // La transacción en curso pudo tomar ya una conexión de la réplica: se usa una nueva
+        return EnrutadorDataSource.enPrimario(() -> transaccionPropia.execute(estado -> lectura.get()));
+    }
+}
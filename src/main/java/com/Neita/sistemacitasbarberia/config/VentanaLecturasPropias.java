@@ -0,0 +1,43 @@
+package com.Neita.sistemacitasbarberia.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Usuarios que escribieron hace poco: sus lecturas van al primario hasta que la réplica
+// haya tenido tiempo de recibir los cambios, para que vean lo que acaban de guardar.
+public class VentanaLecturasPropias {
+
+    private static final int LIMPIAR_A_PARTIR_DE = 10_000;
+
+    private final long ventanaNanos;
+    private final Map<String, Long> vencimientos = new ConcurrentHashMap<>();
+
+    public VentanaLecturasPropias(long ventanaMs) {
+        this.ventanaNanos = ventanaMs * 1_000_000L;
+    }
+
+    public void marcar(String usuario) {
+        long ahora = System.nanoTime();
+        vencimientos.put(usuario, ahora + ventanaNanos);
+        // Limpieza perezosa: solo cuando el mapa crece, sin tareas programadas
+        if (vencimientos.size() > LIMPIAR_A_PARTIR_DE) {
+            vencimientos.values().removeIf(vence -> vence - ahora <= 0);
+        }
+    }
+
+    public boolean dentroDeVentana(String usuario) {
+        Long vence = vencimientos.get(usuario);
+        if (vence == null) {
+            return false;
+        }
+        if (vence - System.nanoTime() <= 0) {
+            vencimientos.remove(usuario, vence);
+            return false;
+        }
+        return true;
+    }
+
+    public int tamano() {
+        return vencimientos.size();
+    }
+}
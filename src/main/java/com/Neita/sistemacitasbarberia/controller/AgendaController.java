@@ -0,0 +1,45 @@
+package com.Neita.sistemacitasbarberia.controller;
+
+import com.Neita.sistemacitasbarberia.agenda.CacheDisponibilidad;
+import com.Neita.sistemacitasbarberia.agenda.CarrilesReserva;
+import com.Neita.sistemacitasbarberia.agenda.IndiceAgenda;
+import com.Neita.sistemacitasbarberia.agenda.IndiceListaEspera;
+import com.Neita.sistemacitasbarberia.agenda.RetencionesAgenda;
+import com.Neita.sistemacitasbarberia.agenda.RuedaTemporal;
+import com.Neita.sistemacitasbarberia.dto.MetricasAgendaDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/agenda")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Agenda", description = "Estado interno de la agenda en memoria")
+public class AgendaController {
+
+    private final IndiceAgenda indiceAgenda;
+    private final CarrilesReserva carrilesReserva;
+    private final RetencionesAgenda retencionesAgenda;
+    private final RuedaTemporal ruedaTemporal;
+    private final IndiceListaEspera indiceListaEspera;
+    private final CacheDisponibilidad cacheDisponibilidad;
+
+    @GetMapping("/metricas")
+    @Operation(summary = "Obtener métricas de la agenda en memoria y de los carriles de reserva")
+    public ResponseEntity<MetricasAgendaDTO> obtenerMetricas() {
+        return ResponseEntity.ok(MetricasAgendaDTO.builder()
+                .profesionalesIndexados(indiceAgenda.profesionalesCargados())
+                .retencionesActivas(retencionesAgenda.activas())
+                .expiracionesProgramadas(ruedaTemporal.getPendientes())
+                .solicitudesEnEspera(indiceListaEspera.tamano())
+                .carriles(carrilesReserva.metricas())
+                .cacheDisponibilidad(cacheDisponibilidad.estadisticas())
+                .build());
+    }
+}
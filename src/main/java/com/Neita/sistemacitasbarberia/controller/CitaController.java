@@ -1,17 +1,29 @@
 package com.Neita.sistemacitasbarberia.controller;
 
+import com.Neita.sistemacitasbarberia.agenda.CarrilesReserva;
 import com.Neita.sistemacitasbarberia.dto.CitaDTO;
+import com.Neita.sistemacitasbarberia.dto.PaginaDTO;
+import com.Neita.sistemacitasbarberia.dto.RetencionDTO;
 import com.Neita.sistemacitasbarberia.service.CitaService;
+import com.Neita.sistemacitasbarberia.service.ExportacionCitaService;
+import com.Neita.sistemacitasbarberia.service.RetencionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/citas")
@@ -21,11 +33,31 @@ import java.util.List;
 public class CitaController {
 
     private final CitaService citaService;
+    private final RetencionService retencionService;
+    private final CarrilesReserva carrilesReserva;
+    private final ExportacionCitaService exportacionCitaService;
 
     @GetMapping
-    @Operation(summary = "Obtener todas las citas")
-    public ResponseEntity<List<CitaDTO>> obtenerTodas() {
-        return ResponseEntity.ok(citaService.obtenerTodas());
+    @Operation(summary = "Obtener citas paginadas por cursor, de la más reciente a la más antigua")
+    public ResponseEntity<PaginaDTO<CitaDTO>> obtenerTodas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
+        return ResponseEntity.ok(citaService.obtenerTodas(cursor, tamano));
+    }
+
+    @GetMapping("/exportar")
+    @Operation(summary = "Exportar citas en NDJSON o CSV, escritas en flujo sin cargar el resultado en memoria")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(defaultValue = "ndjson") String formato,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        ExportacionCitaService.Formato tipo = ExportacionCitaService.Formato.desde(formato);
+        exportacionCitaService.validarRango(desde, hasta);
+        StreamingResponseBody cuerpo = salida -> exportacionCitaService.exportar(tipo, desde, hasta, salida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(tipo.getTipoContenido()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"citas." + tipo.getExtension() + "\"")
+                .body(cuerpo);
     }
 
     @GetMapping("/{id}")
@@ -40,6 +72,12 @@ public class CitaController {
         return ResponseEntity.ok(citaService.obtenerPorUsuario(usuarioId));
     }
 
+    @GetMapping("/usuario/{usuarioId}/simple")
+    @Operation(summary = "Listado ligero de citas de un usuario")
+    public ResponseEntity<List<CitaDTO.CitaSimpleDTO>> obtenerSimplesPorUsuario(@PathVariable Long usuarioId) {
+        return ResponseEntity.ok(citaService.obtenerSimplesPorUsuario(usuarioId));
+    }
+
     @GetMapping("/usuario/{usuarioId}/proximas")
     @Operation(summary = "Obtener próximas citas de un usuario")
     public ResponseEntity<List<CitaDTO>> obtenerProximasPorUsuario(@PathVariable Long usuarioId) {
@@ -53,9 +91,18 @@ public class CitaController {
     }
 
     @GetMapping("/profesional/{profesionalId}")
-    @Operation(summary = "Obtener citas de un profesional")
-    public ResponseEntity<List<CitaDTO>> obtenerPorProfesional(@PathVariable Long profesionalId) {
-        return ResponseEntity.ok(citaService.obtenerPorProfesional(profesionalId));
+    @Operation(summary = "Obtener citas de un profesional paginadas por cursor")
+    public ResponseEntity<PaginaDTO<CitaDTO>> obtenerPorProfesional(
+            @PathVariable Long profesionalId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
+        return ResponseEntity.ok(citaService.obtenerPorProfesional(profesionalId, cursor, tamano));
+    }
+
+    @GetMapping("/profesional/{profesionalId}/simple")
+    @Operation(summary = "Listado ligero de citas de un profesional")
+    public ResponseEntity<List<CitaDTO.CitaSimpleDTO>> obtenerSimplesPorProfesional(@PathVariable Long profesionalId) {
+        return ResponseEntity.ok(citaService.obtenerSimplesPorProfesional(profesionalId));
     }
 
     @GetMapping("/profesional/{profesionalId}/proximas")
@@ -67,16 +114,81 @@ public class CitaController {
     @PostMapping
     @Operation(summary = "Crear nueva cita")
     public ResponseEntity<CitaDTO> crear(@Valid @RequestBody CitaDTO.CrearCitaDTO crearDTO) {
-        CitaDTO citaCreada = citaService.crear(crearDTO);
+        // Sin profesional elegido se bloquean todos los que podrían recibir la cita
+        Supplier<Collection<Long>> profesionales = () -> crearDTO.getProfesionalId() != null
+                ? List.of(crearDTO.getProfesionalId())
+                : citaService.profesionalesParaServicio(crearDTO.getServicioId());
+        CitaDTO citaCreada = carrilesReserva.ejecutarResolviendo(profesionales, () -> citaService.crear(crearDTO));
         return ResponseEntity.status(HttpStatus.CREATED).body(citaCreada);
     }
 
+    @PostMapping("/serie")
+    @Operation(summary = "Crear una serie de citas recurrentes")
+    public ResponseEntity<CitaDTO.ResultadoSerieDTO> crearSerie(
+            @Valid @RequestBody CitaDTO.CrearSerieCitaDTO serieDTO) {
+        CitaDTO.ResultadoSerieDTO resultado = carrilesReserva.ejecutar(serieDTO.getProfesionalId(),
+                () -> citaService.crearSerie(serieDTO));
+        return ResponseEntity.status(HttpStatus.CREATED).body(resultado);
+    }
+
+    @PostMapping("/combo")
+    @Operation(summary = "Reservar varios servicios seguidos en una sola cita combinada")
+    public ResponseEntity<CitaDTO.ResultadoComboDTO> crearCombo(
+            @Valid @RequestBody CitaDTO.CrearComboCitaDTO comboDTO) {
+        CitaDTO.ResultadoComboDTO resultado = carrilesReserva.ejecutarResolviendo(() -> citaService.profesionalesParaCombo(comboDTO),
+                () -> citaService.crearCombo(comboDTO));
+        return ResponseEntity.status(HttpStatus.CREATED).body(resultado);
+    }
+
+    @PostMapping("/grupo")
+    @Operation(summary = "Reservar a varios clientes a la misma hora con profesionales distintos")
+    public ResponseEntity<CitaDTO.ResultadoGrupoDTO> crearGrupo(
+            @Valid @RequestBody CitaDTO.CrearGrupoCitaDTO grupoDTO) {
+        CitaDTO.ResultadoGrupoDTO resultado = carrilesReserva.ejecutarResolviendo(() -> citaService.profesionalesParaGrupo(grupoDTO),
+                () -> citaService.crearGrupo(grupoDTO));
+        // Sin asignación posible se responde 409 con las horas alternativas
+        HttpStatus estado = resultado.getCitas().isEmpty() ? HttpStatus.CONFLICT : HttpStatus.CREATED;
+        return ResponseEntity.status(estado).body(resultado);
+    }
+
+    @PostMapping("/holds")
+    @Operation(summary = "Retener temporalmente una franja antes de confirmar la cita")
+    public ResponseEntity<RetencionDTO> retener(@Valid @RequestBody RetencionDTO.CrearRetencionDTO crearDTO) {
+        RetencionDTO retencion = carrilesReserva.ejecutar(crearDTO.getProfesionalId(),
+                () -> retencionService.crear(crearDTO));
+        return ResponseEntity.status(HttpStatus.CREATED).body(retencion);
+    }
+
+    @GetMapping("/holds/{id}")
+    @Operation(summary = "Obtener retención vigente por ID")
+    public ResponseEntity<RetencionDTO> obtenerRetencion(@PathVariable Long id) {
+        return ResponseEntity.ok(retencionService.obtenerPorId(id));
+    }
+
+    @PostMapping("/holds/{id}/confirmar")
+    @Operation(summary = "Confirmar una retención como cita")
+    public ResponseEntity<CitaDTO> confirmarRetencion(
+            @PathVariable Long id,
+            @RequestBody(required = false) RetencionDTO.ConfirmarRetencionDTO confirmarDTO) {
+        CitaDTO citaCreada = carrilesReserva.ejecutar(retencionService.obtenerPorId(id).getProfesionalId(),
+                () -> retencionService.confirmar(id, confirmarDTO));
+        return ResponseEntity.status(HttpStatus.CREATED).body(citaCreada);
+    }
+
+    @DeleteMapping("/holds/{id}")
+    @Operation(summary = "Liberar una retención")
+    public ResponseEntity<Void> liberarRetencion(@PathVariable Long id) {
+        retencionService.liberar(id);
+        return ResponseEntity.noContent().build();
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Actualizar cita")
     public ResponseEntity<CitaDTO> actualizar(
             @PathVariable Long id,
             @Valid @RequestBody CitaDTO citaDTO) {
-        return ResponseEntity.ok(citaService.actualizar(id, citaDTO));
+        return ResponseEntity.ok(carrilesReserva.ejecutarParaCita(() -> citaService.obtenerProfesionalId(id),
+                () -> citaService.actualizar(id, citaDTO)));
     }
 
     @PutMapping("/{id}/estado")
@@ -84,20 +196,21 @@ public class CitaController {
     public ResponseEntity<CitaDTO> actualizarEstado(
             @PathVariable Long id,
             @Valid @RequestBody CitaDTO.ActualizarEstadoDTO actualizarDTO) {
-        return ResponseEntity.ok(citaService.actualizarEstado(id, actualizarDTO));
+        return ResponseEntity.ok(carrilesReserva.ejecutarParaCita(() -> citaService.obtenerProfesionalId(id),
+                () -> citaService.actualizarEstado(id, actualizarDTO)));
     }
 
     @PutMapping("/{id}/cancelar")
     @Operation(summary = "Cancelar cita")
     public ResponseEntity<Void> cancelar(@PathVariable Long id) {
-        citaService.cancelar(id);
+        carrilesReserva.ejecutarParaCita(() -> citaService.obtenerProfesionalId(id), () -> citaService.cancelar(id));
         return ResponseEntity.ok().build();
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Eliminar cita")
     public ResponseEntity<Void> eliminar(@PathVariable Long id) {
-        citaService.eliminar(id);
+        carrilesReserva.ejecutarParaCita(() -> citaService.obtenerProfesionalId(id), () -> citaService.eliminar(id));
         return ResponseEntity.noContent().build();
     }
 }
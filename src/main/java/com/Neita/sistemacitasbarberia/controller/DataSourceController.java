@@ -0,0 +1,34 @@
+package com.Neita.sistemacitasbarberia.controller;
+
+import com.Neita.sistemacitasbarberia.config.EnrutadorDataSource;
+import com.Neita.sistemacitasbarberia.dto.MetricasDataSourceDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/datasource")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "datasource.replica", name = "url")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "DataSource", description = "Enrutamiento entre base de datos primaria y réplica")
+public class DataSourceController {
+
+    private final EnrutadorDataSource enrutadorDataSource;
+
+    @GetMapping("/metricas")
+    @Operation(summary = "Obtener métricas por pool de conexiones (primario y réplica)")
+    public ResponseEntity<MetricasDataSourceDTO> obtenerMetricas() {
+        return ResponseEntity.ok(MetricasDataSourceDTO.builder()
+                .pools(enrutadorDataSource.metricas())
+                .lecturasPropias(enrutadorDataSource.getLecturasPropias())
+                .usuariosEnVentana(enrutadorDataSource.getUsuariosEnVentana())
+                .build());
+    }
+}
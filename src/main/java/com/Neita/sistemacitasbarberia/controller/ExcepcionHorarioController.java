@@ -0,0 +1,44 @@
+package com.Neita.sistemacitasbarberia.controller;
+
+import com.Neita.sistemacitasbarberia.dto.ExcepcionHorarioDTO;
+import com.Neita.sistemacitasbarberia.service.ExcepcionHorarioService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/excepciones-horario")
+@RequiredArgsConstructor
+@Tag(name = "Excepciones de horario", description = "Festivos, vacaciones y cambios puntuales de horario")
+public class ExcepcionHorarioController {
+
+    private final ExcepcionHorarioService excepcionHorarioService;
+
+    @GetMapping
+    @Operation(summary = "Obtener excepciones de horario vigentes")
+    public ResponseEntity<List<ExcepcionHorarioDTO>> obtenerVigentes() {
+        return ResponseEntity.ok(excepcionHorarioService.obtenerVigentes());
+    }
+
+    @PostMapping
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Registrar una excepción y marcar las citas afectadas")
+    public ResponseEntity<ExcepcionHorarioDTO> crear(@Valid @RequestBody ExcepcionHorarioDTO excepcionDTO) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(excepcionHorarioService.crear(excepcionDTO));
+    }
+
+    @DeleteMapping("/{id}")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Eliminar una excepción de horario")
+    public ResponseEntity<Void> eliminar(@PathVariable Long id) {
+        excepcionHorarioService.eliminar(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.Neita.sistemacitasbarberia.controller;
 
 import com.Neita.sistemacitasbarberia.dto.GaleriaDTO;
+import com.Neita.sistemacitasbarberia.dto.PaginaDTO;
 import com.Neita.sistemacitasbarberia.service.GaleriaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -22,9 +23,17 @@ public class GaleriaController {
     private final GaleriaService galeriaService;
 
     @GetMapping("/visibles")
-    @Operation(summary = "Obtener todas las entradas visibles de galería")
-    public ResponseEntity<List<GaleriaDTO>> obtenerTodasVisibles() {
-        return ResponseEntity.ok(galeriaService.obtenerTodasVisibles());
+    @Operation(summary = "Obtener entradas visibles de galería paginadas por cursor")
+    public ResponseEntity<PaginaDTO<GaleriaDTO>> obtenerTodasVisibles(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
+        return ResponseEntity.ok(galeriaService.obtenerTodasVisibles(cursor, tamano));
+    }
+
+    @GetMapping("/visibles/simple")
+    @Operation(summary = "Listado ligero de entradas visibles de galería")
+    public ResponseEntity<List<GaleriaDTO.GaleriaSimpleDTO>> obtenerTodasVisiblesSimples() {
+        return ResponseEntity.ok(galeriaService.obtenerTodasVisiblesSimples());
     }
 
     @GetMapping("/{id}")
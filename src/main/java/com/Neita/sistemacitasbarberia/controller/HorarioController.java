@@ -0,0 +1,39 @@
+package com.Neita.sistemacitasbarberia.controller;
+
+import com.Neita.sistemacitasbarberia.dto.HorarioProfesionalDTO;
+import com.Neita.sistemacitasbarberia.service.HorarioService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/profesionales/{profesionalId}/horario")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "Horarios", description = "Horario semanal de los profesionales")
+public class HorarioController {
+
+    private final HorarioService horarioService;
+
+    @GetMapping
+    @Operation(summary = "Obtener el horario semanal de un profesional")
+    public ResponseEntity<List<HorarioProfesionalDTO>> obtener(@PathVariable Long profesionalId) {
+        return ResponseEntity.ok(horarioService.obtenerPorProfesional(profesionalId));
+    }
+
+    @PutMapping
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Reemplazar el horario semanal de un profesional")
+    public ResponseEntity<List<HorarioProfesionalDTO>> reemplazar(
+            @PathVariable Long profesionalId,
+            @RequestBody List<@Valid HorarioProfesionalDTO> tramos) {
+        return ResponseEntity.ok(horarioService.reemplazar(profesionalId, tramos));
+    }
+}
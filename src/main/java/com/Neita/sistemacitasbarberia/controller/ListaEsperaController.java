@@ -0,0 +1,49 @@
+package com.Neita.sistemacitasbarberia.controller;
+
+import com.Neita.sistemacitasbarberia.dto.ListaEsperaDTO;
+import com.Neita.sistemacitasbarberia.service.ListaEsperaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/lista-espera")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Lista de espera", description = "Solicitudes para ocupar huecos liberados por cancelaciones")
+public class ListaEsperaController {
+
+    private final ListaEsperaService listaEsperaService;
+
+    @PostMapping
+    @Operation(summary = "Apuntarse a la lista de espera de un profesional y servicio")
+    public ResponseEntity<ListaEsperaDTO> crear(@Valid @RequestBody ListaEsperaDTO.CrearListaEsperaDTO crearDTO) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(listaEsperaService.crear(crearDTO));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Obtener solicitud de lista de espera por ID")
+    public ResponseEntity<ListaEsperaDTO> obtenerPorId(@PathVariable Long id) {
+        return ResponseEntity.ok(listaEsperaService.obtenerPorId(id));
+    }
+
+    @GetMapping("/usuario/{usuarioId}")
+    @Operation(summary = "Obtener solicitudes de lista de espera de un usuario")
+    public ResponseEntity<List<ListaEsperaDTO>> obtenerPorUsuario(@PathVariable Long usuarioId) {
+        return ResponseEntity.ok(listaEsperaService.obtenerPorUsuario(usuarioId));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Salir de la lista de espera")
+    public ResponseEntity<Void> cancelar(@PathVariable Long id) {
+        listaEsperaService.cancelar(id);
+        return ResponseEntity.noContent().build();
+    }
+}
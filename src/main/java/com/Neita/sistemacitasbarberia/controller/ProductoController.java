@@ -1,5 +1,6 @@
 package com.Neita.sistemacitasbarberia.controller;
 
+import com.Neita.sistemacitasbarberia.dto.PaginaDTO;
 import com.Neita.sistemacitasbarberia.dto.ProductoDTO;
 import com.Neita.sistemacitasbarberia.service.ProductoService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -27,6 +28,12 @@ public class ProductoController {
         return ResponseEntity.ok(productoService.obtenerDisponibles());
     }
 
+    @GetMapping("/disponibles/simple")
+    @Operation(summary = "Listado ligero de productos disponibles")
+    public ResponseEntity<List<ProductoDTO.ProductoSimpleDTO>> obtenerDisponiblesSimples() {
+        return ResponseEntity.ok(productoService.obtenerDisponiblesSimples());
+    }
+
     @GetMapping("/en-stock")
     @Operation(summary = "Obtener productos en stock")
     public ResponseEntity<List<ProductoDTO>> obtenerEnStock() {
@@ -35,9 +42,11 @@ public class ProductoController {
 
     @GetMapping
     @SecurityRequirement(name = "bearerAuth")
-    @Operation(summary = "Obtener todos los productos")
-    public ResponseEntity<List<ProductoDTO>> obtenerTodos() {
-        return ResponseEntity.ok(productoService.obtenerTodos());
+    @Operation(summary = "Obtener productos paginados por cursor")
+    public ResponseEntity<PaginaDTO<ProductoDTO>> obtenerTodos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
+        return ResponseEntity.ok(productoService.obtenerTodos(cursor, tamano));
     }
 
     @GetMapping("/{id}")
@@ -1,16 +1,24 @@
 package com.Neita.sistemacitasbarberia.controller;
 
+import com.Neita.sistemacitasbarberia.agenda.CarrilesReserva;
+import com.Neita.sistemacitasbarberia.dto.CierreDiaDTO;
+import com.Neita.sistemacitasbarberia.dto.DisponibilidadDTO;
 import com.Neita.sistemacitasbarberia.dto.ProfesionalDTO;
+import com.Neita.sistemacitasbarberia.dto.ReasignacionDTO;
+import com.Neita.sistemacitasbarberia.service.CitaService;
+import com.Neita.sistemacitasbarberia.service.DisponibilidadService;
 import com.Neita.sistemacitasbarberia.service.ProfesionalService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -20,6 +28,9 @@ import java.util.List;
 public class ProfesionalController {
 
     private final ProfesionalService profesionalService;
+    private final DisponibilidadService disponibilidadService;
+    private final CitaService citaService;
+    private final CarrilesReserva carrilesReserva;
 
     @GetMapping
     @Operation(summary = "Obtener todos los profesionales")
@@ -33,6 +44,12 @@ public class ProfesionalController {
         return ResponseEntity.ok(profesionalService.obtenerActivos());
     }
 
+    @GetMapping("/activos/simple")
+    @Operation(summary = "Listado ligero de profesionales activos")
+    public ResponseEntity<List<ProfesionalDTO.ProfesionalSimpleDTO>> obtenerActivosSimples() {
+        return ResponseEntity.ok(profesionalService.obtenerActivosSimples());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obtener profesional por ID")
     public ResponseEntity<ProfesionalDTO> obtenerPorId(@PathVariable Long id) {
@@ -63,6 +80,15 @@ public class ProfesionalController {
         return ResponseEntity.ok(profesionalService.obtenerPorServicio(servicioId));
     }
 
+    @GetMapping("/{id}/disponibilidad")
+    @Operation(summary = "Obtener horarios libres de un profesional para un servicio en una fecha")
+    public ResponseEntity<DisponibilidadDTO> obtenerDisponibilidad(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam Long servicioId) {
+        return ResponseEntity.ok(disponibilidadService.obtenerDisponibilidad(id, fecha, servicioId));
+    }
+
     @PostMapping
     @SecurityRequirement(name = "bearerAuth")
     @Operation(summary = "Crear nuevo profesional")
@@ -82,10 +108,19 @@ public class ProfesionalController {
 
     @PutMapping("/{id}/desactivar")
     @SecurityRequirement(name = "bearerAuth")
-    @Operation(summary = "Desactivar profesional")
-    public ResponseEntity<Void> desactivar(@PathVariable Long id) {
-        profesionalService.desactivar(id);
-        return ResponseEntity.ok().build();
+    @Operation(summary = "Desactivar profesional y reasignar sus citas futuras")
+    public ResponseEntity<ReasignacionDTO> desactivar(@PathVariable Long id) {
+        return ResponseEntity.ok(carrilesReserva.ejecutarResolviendo(() -> citaService.profesionalesParaReasignar(id),
+                () -> profesionalService.desactivar(id)));
+    }
+
+    @PostMapping("/{id}/cancelar-dia")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Cancelar todas las citas del día y cerrar la agenda del profesional")
+    public ResponseEntity<CierreDiaDTO> cancelarDia(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        return ResponseEntity.ok(carrilesReserva.ejecutar(id, () -> citaService.cancelarDia(id, fecha)));
     }
 
     @PutMapping("/{id}/activar")
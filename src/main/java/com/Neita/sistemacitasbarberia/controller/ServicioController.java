@@ -1,16 +1,20 @@
 package com.Neita.sistemacitasbarberia.controller;
 
+import com.Neita.sistemacitasbarberia.dto.DisponibilidadDTO;
 import com.Neita.sistemacitasbarberia.dto.ServicioDTO;
+import com.Neita.sistemacitasbarberia.service.DisponibilidadService;
 import com.Neita.sistemacitasbarberia.service.ServicioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -20,6 +24,7 @@ import java.util.List;
 public class ServicioController {
 
     private final ServicioService servicioService;
+    private final DisponibilidadService disponibilidadService;
 
     @GetMapping
     @Operation(summary = "Obtener todos los servicios")
@@ -51,6 +56,15 @@ public class ServicioController {
         return ResponseEntity.ok(servicioService.obtenerPorProfesional(profesionalId));
     }
 
+    @GetMapping("/{id}/primer-disponible")
+    @Operation(summary = "Obtener las primeras opciones libres entre todos los profesionales del servicio")
+    public ResponseEntity<List<DisponibilidadDTO.OpcionDisponibleDTO>> buscarPrimerosDisponibles(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(defaultValue = "5") int limite) {
+        return ResponseEntity.ok(disponibilidadService.buscarPrimerosDisponibles(id, desde, limite));
+    }
+
     @PostMapping
     @SecurityRequirement(name = "bearerAuth")
     @Operation(summary = "Crear nuevo servicio")
@@ -1,5 +1,6 @@
 package com.Neita.sistemacitasbarberia.controller;
 
+import com.Neita.sistemacitasbarberia.dto.PaginaDTO;
 import com.Neita.sistemacitasbarberia.dto.UsuarioDTO;
 import com.Neita.sistemacitasbarberia.service.UsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,9 +23,11 @@ public class UsuarioController {
     private final UsuarioService usuarioService;
 
     @GetMapping
-    @Operation(summary = "Obtener todos los usuarios")
-    public ResponseEntity<List<UsuarioDTO>> obtenerTodos() {
-        return ResponseEntity.ok(usuarioService.obtenerTodos());
+    @Operation(summary = "Obtener usuarios paginados por cursor")
+    public ResponseEntity<PaginaDTO<UsuarioDTO>> obtenerTodos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
+        return ResponseEntity.ok(usuarioService.obtenerTodos(cursor, tamano));
     }
 
     @GetMapping("/{id}")
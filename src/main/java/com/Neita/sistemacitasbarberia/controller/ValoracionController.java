@@ -1,5 +1,6 @@
 package com.Neita.sistemacitasbarberia.controller;
 
+import com.Neita.sistemacitasbarberia.dto.PaginaDTO;
 import com.Neita.sistemacitasbarberia.dto.ValoracionDTO;
 import com.Neita.sistemacitasbarberia.service.ValoracionService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -28,9 +29,12 @@ public class ValoracionController {
     }
 
     @GetMapping("/profesional/{profesionalId}")
-    @Operation(summary = "Obtener valoraciones de un profesional")
-    public ResponseEntity<List<ValoracionDTO>> obtenerPorProfesional(@PathVariable Long profesionalId) {
-        return ResponseEntity.ok(valoracionService.obtenerPorProfesional(profesionalId));
+    @Operation(summary = "Obtener valoraciones de un profesional paginadas por cursor")
+    public ResponseEntity<PaginaDTO<ValoracionDTO>> obtenerPorProfesional(
+            @PathVariable Long profesionalId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
+        return ResponseEntity.ok(valoracionService.obtenerPorProfesional(profesionalId, cursor, tamano));
     }
 
     @GetMapping("/usuario/{usuarioId}")
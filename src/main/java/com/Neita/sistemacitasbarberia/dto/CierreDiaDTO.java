@@ -0,0 +1,38 @@
+package com.Neita.sistemacitasbarberia.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Resultado de cerrar la agenda de un profesional para un día completo
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CierreDiaDTO {
+
+    private Long profesionalId;
+
+    private LocalDate fecha;
+
+    private Integer citasCanceladas;
+
+    private List<Long> citaIds;
+
+    // Clientes a los que avisar de la cancelación
+    private List<ClienteAfectadoDTO> clientesAfectados;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ClienteAfectadoDTO {
+        private Long citaId;
+        private LocalDateTime fechaHora;
+        private Long usuarioId;
+        private String nombreUsuario;
+        private String emailUsuario;
+        private String telefonoUsuario;
+    }
+}
@@ -1,11 +1,17 @@
 package com.Neita.sistemacitasbarberia.dto;
 
 import com.Neita.sistemacitasbarberia.entity.Cita.EstadoCita;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -29,6 +35,8 @@ public class CitaDTO {
 
     private LocalDateTime fechaCompletada;
 
+    private Boolean requiereReprogramacion;
+
     @NotNull(message = "El ID del usuario es obligatorio")
     private Long usuarioId;
 
@@ -65,8 +73,137 @@ public class CitaDTO {
         @NotNull(message = "El ID del servicio es obligatorio")
         private Long servicioId;
 
+        // Opcional: sin profesional se asigna el que menos fragmenta su agenda
+        private Long profesionalId;
+    }
+
+    // DTO para crear una serie de citas recurrentes
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CrearSerieCitaDTO {
+
+        @NotNull(message = "La fecha y hora de la primera cita son obligatorias")
+        @Future(message = "La fecha debe ser futura")
+        private LocalDateTime fechaHora;
+
+        private String notas;
+
+        @NotNull(message = "El ID del usuario es obligatorio")
+        private Long usuarioId;
+
+        @NotNull(message = "El ID del servicio es obligatorio")
+        private Long servicioId;
+
         @NotNull(message = "El ID del profesional es obligatorio")
         private Long profesionalId;
+
+        @NotNull(message = "El intervalo en días es obligatorio")
+        @Min(value = 1, message = "El intervalo debe ser de al menos 1 día")
+        private Integer intervaloDias;
+
+        @NotNull(message = "El número de ocurrencias es obligatorio")
+        @Min(value = 1, message = "La serie debe tener al menos 1 ocurrencia")
+        @Max(value = 52, message = "La serie no puede exceder 52 ocurrencias")
+        private Integer ocurrencias;
+    }
+
+    // Resultado de una serie: citas creadas y ocurrencias rechazadas
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ResultadoSerieDTO {
+        private List<CitaDTO> creadas;
+        private List<ConflictoDTO> conflictos;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ConflictoDTO {
+        private LocalDateTime fechaHora;
+        private String motivo;
+    }
+
+    // DTO para reservar varios servicios seguidos en una sola operación
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CrearComboCitaDTO {
+
+        @NotNull(message = "La fecha y hora son obligatorias")
+        @Future(message = "La fecha debe ser futura")
+        private LocalDateTime fechaHora;
+
+        private String notas;
+
+        @NotNull(message = "El ID del usuario es obligatorio")
+        private Long usuarioId;
+
+        @NotEmpty(message = "El combo debe incluir al menos un servicio")
+        @Size(max = 6, message = "El combo no puede incluir más de 6 servicios")
+        private List<@NotNull Long> servicioIds;
+
+        // Opcional: sin profesional se elige el que pueda atender el combo
+        private Long profesionalId;
+
+        // Permite repartir el combo entre dos profesionales consecutivos
+        private Boolean permitirRelevo;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ResultadoComboDTO {
+        private List<CitaDTO> citas;
+        private Integer duracionTotalMinutos;
+        private Double precioTotal;
+        private LocalDateTime fechaHoraFin;
+    }
+
+    // DTO para reservar a varios clientes a la misma hora con profesionales distintos
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CrearGrupoCitaDTO {
+
+        @NotNull(message = "La fecha y hora son obligatorias")
+        @Future(message = "La fecha debe ser futura")
+        private LocalDateTime fechaHora;
+
+        private String notas;
+
+        @NotEmpty(message = "El grupo debe incluir al menos un participante")
+        @Size(max = 6, message = "El grupo no puede exceder 6 participantes")
+        private List<@NotNull(message = "Los participantes no pueden ser nulos") @Valid ParticipanteDTO> participantes;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ParticipanteDTO {
+
+        @NotNull(message = "El ID del usuario es obligatorio")
+        private Long usuarioId;
+
+        @NotNull(message = "El ID del servicio es obligatorio")
+        private Long servicioId;
+
+        // Opcional: limita la asignación de este participante a un profesional concreto
+        private Long profesionalId;
+    }
+
+    // Citas creadas o, si la hora pedida es imposible, horas alternativas para todo el grupo
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ResultadoGrupoDTO {
+        private List<CitaDTO> citas;
+        private List<LocalDateTime> alternativas;
     }
 
     // DTO para actualizar estado
@@ -95,4 +232,21 @@ public class CitaDTO {
         private String nombreProfesional;
         private Double precioFinal;
     }
+
+    // Fila de la exportación contable; se construye en la consulta, sin entidades gestionadas
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CitaExportacionDTO {
+        private Long id;
+        private LocalDateTime fechaHora;
+        private EstadoCita estado;
+        private Double precioFinal;
+        private String nombreServicio;
+        private String nombreUsuario;
+        private String emailUsuario;
+        private String nombreProfesional;
+        private LocalDateTime fechaCreacion;
+        private LocalDateTime fechaCompletada;
+    }
 }
@@ -0,0 +1,39 @@
+package com.Neita.sistemacitasbarberia.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DisponibilidadDTO {
+
+    private Long profesionalId;
+
+    private Long servicioId;
+
+    private LocalDate fecha;
+
+    private Integer duracionMinutos;
+
+    // Horas de inicio en las que el servicio cabe completo
+    private List<LocalTime> horarios;
+
+    // Opción concreta de reserva (profesional, hora de inicio y precio)
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class OpcionDisponibleDTO {
+        private Long profesionalId;
+        private String nombreProfesional;
+        private Long servicioId;
+        private LocalDateTime fechaHora;
+        private Double precio;
+    }
+}
@@ -0,0 +1,40 @@
+package com.Neita.sistemacitasbarberia.dto;
+
+import com.Neita.sistemacitasbarberia.entity.ExcepcionHorario.TipoExcepcion;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExcepcionHorarioDTO {
+
+    private Long id;
+
+    // Nulo para excepciones de toda la barbería
+    private Long profesionalId;
+
+    @NotNull(message = "La fecha de inicio es obligatoria")
+    private LocalDate fechaInicio;
+
+    @NotNull(message = "La fecha de fin es obligatoria")
+    private LocalDate fechaFin;
+
+    @NotNull(message = "El tipo de excepción es obligatorio")
+    private TipoExcepcion tipo;
+
+    private LocalTime horaInicio;
+
+    private LocalTime horaFin;
+
+    @Size(max = 255, message = "El motivo no puede exceder 255 caracteres")
+    private String motivo;
+
+    // Citas marcadas para reprogramar al registrar la excepción
+    private Integer citasAfectadas;
+}
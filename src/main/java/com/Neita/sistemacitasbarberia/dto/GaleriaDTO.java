@@ -33,6 +33,20 @@ public class GaleriaDTO {
 
     private String nombreProfesional;
 
+    // DTO simplificado para listados
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class GaleriaSimpleDTO {
+        private Long id;
+        private String titulo;
+        private String urlImagen;
+        private LocalDateTime fechaSubida;
+        private Long profesionalId;
+        private String nombreProfesional;
+    }
+
     // DTO para crear entrada de galería
     @Data
     @NoArgsConstructor
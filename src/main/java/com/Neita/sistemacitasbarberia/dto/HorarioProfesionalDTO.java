@@ -0,0 +1,28 @@
+package com.Neita.sistemacitasbarberia.dto;
+
+import com.Neita.sistemacitasbarberia.entity.HorarioProfesional.TipoTramo;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HorarioProfesionalDTO {
+
+    private Long id;
+
+    @NotNull(message = "El día de la semana es obligatorio")
+    private DayOfWeek diaSemana;
+
+    @NotNull(message = "La hora de inicio es obligatoria")
+    private LocalTime horaInicio;
+
+    @NotNull(message = "La hora de fin es obligatoria")
+    private LocalTime horaFin;
+
+    private TipoTramo tipo;
+}
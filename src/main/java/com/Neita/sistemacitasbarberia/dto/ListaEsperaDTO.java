@@ -0,0 +1,62 @@
+package com.Neita.sistemacitasbarberia.dto;
+
+import com.Neita.sistemacitasbarberia.entity.ListaEspera.EstadoListaEspera;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ListaEsperaDTO {
+
+    private Long id;
+
+    private Long usuarioId;
+
+    private Long profesionalId;
+
+    private Long servicioId;
+
+    private String nombreServicio;
+
+    private String nombreProfesional;
+
+    private LocalDateTime ventanaInicio;
+
+    private LocalDateTime ventanaFin;
+
+    private EstadoListaEspera estado;
+
+    private Long retencionId;
+
+    private LocalDateTime fechaOferta;
+
+    private LocalDateTime fechaCreacion;
+
+    // DTO para apuntarse a la lista de espera
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CrearListaEsperaDTO {
+
+        @NotNull(message = "El ID del usuario es obligatorio")
+        private Long usuarioId;
+
+        @NotNull(message = "El ID del profesional es obligatorio")
+        private Long profesionalId;
+
+        @NotNull(message = "El ID del servicio es obligatorio")
+        private Long servicioId;
+
+        @NotNull(message = "El inicio de la ventana es obligatorio")
+        private LocalDateTime ventanaInicio;
+
+        @NotNull(message = "El fin de la ventana es obligatorio")
+        @Future(message = "El fin de la ventana debe ser futuro")
+        private LocalDateTime ventanaFin;
+    }
+}
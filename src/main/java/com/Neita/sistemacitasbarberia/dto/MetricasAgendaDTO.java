@@ -0,0 +1,26 @@
+package com.Neita.sistemacitasbarberia.dto;
+
+import com.Neita.sistemacitasbarberia.agenda.CacheDisponibilidad;
+import com.Neita.sistemacitasbarberia.agenda.CarrilesReserva;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MetricasAgendaDTO {
+
+    private Integer profesionalesIndexados;
+
+    private Integer retencionesActivas;
+
+    private Integer expiracionesProgramadas;
+
+    private Integer solicitudesEnEspera;
+
+    private List<CarrilesReserva.Metrica> carriles;
+
+    private CacheDisponibilidad.Estadisticas cacheDisponibilidad;
+}
@@ -0,0 +1,20 @@
+package com.Neita.sistemacitasbarberia.dto;
+
+import com.Neita.sistemacitasbarberia.config.EnrutadorDataSource;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MetricasDataSourceDTO {
+
+    private List<EnrutadorDataSource.MetricaPool> pools;
+
+    // Lecturas enviadas al primario por caer en la ventana tras una escritura del mismo usuario
+    private Long lecturasPropias;
+
+    private Integer usuariosEnVentana;
+}
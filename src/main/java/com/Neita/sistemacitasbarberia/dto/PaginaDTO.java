@@ -0,0 +1,19 @@
+package com.Neita.sistemacitasbarberia.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// Página de un listado paginado por clave: el cursor siguiente es nulo en la última página
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaginaDTO<T> {
+
+    private List<T> contenido;
+
+    private Integer tamano;
+
+    private String siguienteCursor;
+}
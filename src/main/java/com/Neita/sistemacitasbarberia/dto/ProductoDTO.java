@@ -43,6 +43,20 @@ public class ProductoDTO {
 
     private LocalDateTime fechaCreacion;
 
+    // DTO simplificado para listados
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ProductoSimpleDTO {
+        private Long id;
+        private String nombre;
+        private Double precio;
+        private Integer stock;
+        private String imagenProducto;
+        private String categoria;
+    }
+
     // DTO para crear producto
     @Data
     @NoArgsConstructor
@@ -0,0 +1,35 @@
+package com.Neita.sistemacitasbarberia.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Informe de la reasignación de las citas futuras de un profesional desactivado
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReasignacionDTO {
+
+    private Long profesionalId;
+
+    private Integer totalCitas;
+
+    private List<DetalleDTO> reasignadas;
+
+    private List<DetalleDTO> sinReasignar;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class DetalleDTO {
+        private Long citaId;
+        private LocalDateTime fechaHora;
+        private String nombreServicio;
+        private Long profesionalNuevoId;
+        private String nombreProfesionalNuevo;
+        private String motivo;
+    }
+}
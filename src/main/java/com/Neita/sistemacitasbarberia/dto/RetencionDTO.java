@@ -0,0 +1,62 @@
+package com.Neita.sistemacitasbarberia.dto;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RetencionDTO {
+
+    private Long id;
+
+    private Long usuarioId;
+
+    private Long profesionalId;
+
+    private Long servicioId;
+
+    private LocalDateTime fechaHora;
+
+    private Integer duracionMinutos;
+
+    private LocalDateTime expira;
+
+    // DTO para retener una franja
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CrearRetencionDTO {
+
+        @NotNull(message = "La fecha y hora son obligatorias")
+        @Future(message = "La fecha debe ser futura")
+        private LocalDateTime fechaHora;
+
+        @NotNull(message = "El ID del usuario es obligatorio")
+        private Long usuarioId;
+
+        @NotNull(message = "El ID del servicio es obligatorio")
+        private Long servicioId;
+
+        @NotNull(message = "El ID del profesional es obligatorio")
+        private Long profesionalId;
+
+        @Min(value = 1, message = "La retención debe durar al menos 1 minuto")
+        @Max(value = 30, message = "La retención no puede exceder 30 minutos")
+        private Integer minutos;
+    }
+
+    // DTO para confirmar una retención como cita
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ConfirmarRetencionDTO {
+        private String notas;
+    }
+}
@@ -24,6 +24,8 @@ public class ServicioDTO {
             message = "La duración debe tener formato válido (ej: 30 min, 1 hora)")
     private String duracion;
 
+    private Integer duracionMinutos;
+
     private String imagenServicio;
 
     private Boolean activo;
@@ -9,6 +9,11 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "barbero_servicio", 
        uniqueConstraints = @UniqueConstraint(columnNames = {"profesional_id", "servicio_id"}))
+// Asociaciones que lee BarberoServicioService.convertirADTO, cargadas en la misma consulta del listado
+@NamedEntityGraph(name = "BarberoServicio.detalle", attributeNodes = {
+        @NamedAttributeNode(value = "profesional", subgraph = "profesional"),
+        @NamedAttributeNode("servicio")
+}, subgraphs = @NamedSubgraph(name = "profesional", attributeNodes = @NamedAttributeNode("usuario")))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,7 +22,9 @@ import java.time.LocalDateTime;
 public class BarberoServicio {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "barbero_servicio_id")
+    @TableGenerator(name = "barbero_servicio_id", table = "id_generador", pkColumnName = "entidad",
+                    valueColumnName = "siguiente_id", pkColumnValue = "barbero_servicio", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -3,11 +3,21 @@ package com.Neita.sistemacitasbarberia.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "cita")
+// Asociaciones que lee CitaService.convertirADTO, cargadas en la misma consulta del listado
+@NamedEntityGraph(name = "Cita.detalle", attributeNodes = {
+        @NamedAttributeNode(value = "usuario", subgraph = "usuario"),
+        @NamedAttributeNode("servicio"),
+        @NamedAttributeNode(value = "profesional", subgraph = "profesional")
+}, subgraphs = {
+        @NamedSubgraph(name = "usuario", attributeNodes = @NamedAttributeNode("profesional")),
+        @NamedSubgraph(name = "profesional", attributeNodes = @NamedAttributeNode("usuario"))
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,8 +25,11 @@ import java.time.LocalDateTime;
 @Builder
 public class Cita {
 
+    // Identificadores reservados por bloques en id_generador: con IDENTITY Hibernate no puede agrupar inserciones
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "cita_id")
+    @TableGenerator(name = "cita_id", table = "id_generador", pkColumnName = "entidad",
+                    valueColumnName = "siguiente_id", pkColumnValue = "cita", allocationSize = 50)
     private Long id;
 
     @Column(name = "fecha_hora", nullable = false)
@@ -40,6 +53,16 @@ public class Cita {
     @Column(name = "fecha_completada")
     private LocalDateTime fechaCompletada;
 
+    // Permite reponer en el arranque solo las citas modificadas desde la última instantánea de la agenda
+    @UpdateTimestamp
+    @Column(name = "fecha_modificacion")
+    private LocalDateTime fechaModificacion;
+
+    // Marcada cuando una excepción del calendario deja la cita fuera de la jornada
+    @Column(name = "requiere_reprogramacion", nullable = false)
+    @Builder.Default
+    private Boolean requiereReprogramacion = false;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", nullable = false)
     private Usuario usuario;
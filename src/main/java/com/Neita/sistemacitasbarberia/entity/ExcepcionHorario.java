@@ -0,0 +1,62 @@
+package com.Neita.sistemacitasbarberia.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// Excepción al horario semanal entre fechaInicio y fechaFin (ambas incluidas).
+// Sin profesional se aplica a toda la barbería. Sin horas, un cierre afecta al día completo.
+@Entity
+@Table(name = "excepcion_horario")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExcepcionHorario {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "fecha_inicio", nullable = false)
+    private LocalDate fechaInicio;
+
+    @Column(name = "fecha_fin", nullable = false)
+    private LocalDate fechaFin;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoExcepcion tipo;
+
+    @Column(name = "hora_inicio")
+    private LocalTime horaInicio;
+
+    @Column(name = "hora_fin")
+    private LocalTime horaFin;
+
+    @Column(length = 255)
+    private String motivo;
+
+    @CreationTimestamp
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "profesional_id")
+    private Profesional profesional;
+
+    public enum TipoExcepcion {
+        CERRADO,
+        HORARIO_REDUCIDO,
+        TURNO_EXTRA
+    }
+
+    public boolean esDiaCompleto() {
+        return horaInicio == null || horaFin == null;
+    }
+}
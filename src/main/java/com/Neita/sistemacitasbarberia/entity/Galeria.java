@@ -8,6 +8,10 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "galeria")
+// Asociaciones que lee GaleriaService.convertirADTO, cargadas en la misma consulta del listado
+@NamedEntityGraph(name = "Galeria.detalle", attributeNodes =
+        @NamedAttributeNode(value = "profesional", subgraph = "profesional"),
+        subgraphs = @NamedSubgraph(name = "profesional", attributeNodes = @NamedAttributeNode("usuario")))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,7 +20,9 @@ import java.time.LocalDateTime;
 public class Galeria {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "galeria_id")
+    @TableGenerator(name = "galeria_id", table = "id_generador", pkColumnName = "entidad",
+                    valueColumnName = "siguiente_id", pkColumnValue = "galeria", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,47 @@
+package com.Neita.sistemacitasbarberia.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+// Tramo del horario semanal de un profesional. Los turnos suman franjas laborables
+// y los descansos las restan dentro del mismo día.
+@Entity
+@Table(name = "horario_profesional")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HorarioProfesional {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dia_semana", nullable = false, length = 20)
+    private DayOfWeek diaSemana;
+
+    @Column(name = "hora_inicio", nullable = false)
+    private LocalTime horaInicio;
+
+    @Column(name = "hora_fin", nullable = false)
+    private LocalTime horaFin;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private TipoTramo tipo = TipoTramo.TURNO;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "profesional_id", nullable = false)
+    private Profesional profesional;
+
+    public enum TipoTramo {
+        TURNO,
+        DESCANSO
+    }
+}
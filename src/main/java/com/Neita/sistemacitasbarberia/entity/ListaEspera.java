@@ -0,0 +1,67 @@
+package com.Neita.sistemacitasbarberia.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// Solicitud de un cliente para ocupar cualquier hueco que se libere con un
+// profesional y servicio dentro de la ventana [ventanaInicio, ventanaFin)
+@Entity
+@Table(name = "lista_espera")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ListaEspera {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ventana_inicio", nullable = false)
+    private LocalDateTime ventanaInicio;
+
+    @Column(name = "ventana_fin", nullable = false)
+    private LocalDateTime ventanaFin;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    @Builder.Default
+    private EstadoListaEspera estado = EstadoListaEspera.ACTIVA;
+
+    // Retención ofrecida al cliente cuando se liberó un hueco compatible
+    @Column(name = "retencion_id")
+    private Long retencionId;
+
+    @Column(name = "fecha_oferta")
+    private LocalDateTime fechaOferta;
+
+    @CreationTimestamp
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuario usuario;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "servicio_id", nullable = false)
+    private Servicio servicio;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "profesional_id", nullable = false)
+    private Profesional profesional;
+
+    public enum EstadoListaEspera {
+        ACTIVA,
+        OFRECIDA,
+        // El cliente confirmó la retención ofrecida como cita
+        ATENDIDA,
+        CANCELADA,
+        // La ventana terminó sin que se liberase un hueco compatible
+        CADUCADA
+    }
+}
@@ -16,7 +16,9 @@ import java.time.LocalDateTime;
 public class Producto {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "producto_id")
+    @TableGenerator(name = "producto_id", table = "id_generador", pkColumnName = "entidad",
+                    valueColumnName = "siguiente_id", pkColumnValue = "producto", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 255)
@@ -0,0 +1,38 @@
+package com.Neita.sistemacitasbarberia.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Franja de 5 minutos ocupada por una cita. La restricción única sobre
+// (profesional_id, slot_inicio) impide que dos citas reserven la misma franja,
+// incluso si se crean a la vez desde distintos nodos.
+@Entity
+@Table(name = "reserva_slot",
+       uniqueConstraints = @UniqueConstraint(name = "uk_reserva_slot_profesional_inicio",
+                                             columnNames = {"profesional_id", "slot_inicio"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservaSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "reserva_slot_id")
+    @TableGenerator(name = "reserva_slot_id", table = "id_generador", pkColumnName = "entidad",
+                    valueColumnName = "siguiente_id", pkColumnValue = "reserva_slot", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "slot_inicio", nullable = false)
+    private LocalDateTime slotInicio;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "profesional_id", nullable = false)
+    private Profesional profesional;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cita_id", nullable = false)
+    private Cita cita;
+}
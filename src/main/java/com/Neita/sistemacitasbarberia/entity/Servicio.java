@@ -5,6 +5,8 @@ import lombok.*;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Entity
 @Table(name = "servicio")
@@ -15,6 +17,10 @@ import java.util.Set;
 @Builder
 public class Servicio {
 
+    public static final int DURACION_POR_DEFECTO_MINUTOS = 60;
+
+    private static final Pattern PATRON_DURACION = Pattern.compile("(\\d+)\\s*(minutos|min|horas|hora)");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -28,6 +34,9 @@ public class Servicio {
     @Column(nullable = false, length = 50)
     private String duracion;
 
+    @Column(name = "duracion_minutos", nullable = false)
+    private Integer duracionMinutos;
+
     @Column(name = "imagen_servicio")
     private String imagenServicio;
 
@@ -42,4 +51,30 @@ public class Servicio {
     @OneToMany(mappedBy = "servicio", cascade = CascadeType.ALL)
     @Builder.Default
     private Set<Cita> citas = new HashSet<>();
+
+    // Método helper para obtener la duración en minutos; V5 rellenó la columna en las filas antiguas
+    // y el texto solo se consulta en instancias aún sin guardar
+    public int getDuracionEnMinutos() {
+        if (duracionMinutos != null) {
+            return duracionMinutos;
+        }
+        Integer parseada = parsearDuracion(duracion);
+        return parseada != null ? parseada : DURACION_POR_DEFECTO_MINUTOS;
+    }
+
+    // Convierte textos como "45 minutos", "1 hora" o "1 hora 30 min" a minutos; null si no es válido
+    public static Integer parsearDuracion(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        Matcher matcher = PATRON_DURACION.matcher(texto.trim().toLowerCase());
+        int total = 0;
+        boolean encontrado = false;
+        while (matcher.find()) {
+            int cantidad = Integer.parseInt(matcher.group(1));
+            total += matcher.group(2).startsWith("hora") ? cantidad * 60 : cantidad;
+            encontrado = true;
+        }
+        return encontrado && total > 0 ? total : null;
+    }
 }
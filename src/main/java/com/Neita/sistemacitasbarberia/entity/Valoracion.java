@@ -8,6 +8,15 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "valoracion")
+// Asociaciones que lee ValoracionService.convertirADTO, cargadas en la misma consulta del listado
+@NamedEntityGraph(name = "Valoracion.detalle", attributeNodes = {
+        @NamedAttributeNode(value = "usuario", subgraph = "usuario"),
+        @NamedAttributeNode(value = "profesional", subgraph = "profesional"),
+        @NamedAttributeNode("cita")
+}, subgraphs = {
+        @NamedSubgraph(name = "usuario", attributeNodes = @NamedAttributeNode("profesional")),
+        @NamedSubgraph(name = "profesional", attributeNodes = @NamedAttributeNode("usuario"))
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,7 +25,9 @@ import java.time.LocalDateTime;
 public class Valoracion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "valoracion_id")
+    @TableGenerator(name = "valoracion_id", table = "id_generador", pkColumnName = "entidad",
+                    valueColumnName = "siguiente_id", pkColumnValue = "valoracion", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
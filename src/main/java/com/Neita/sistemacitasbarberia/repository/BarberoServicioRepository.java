@@ -1,35 +1,58 @@
 package com.Neita.sistemacitasbarberia.repository;
 
 import com.Neita.sistemacitasbarberia.entity.BarberoServicio;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BarberoServicioRepository extends JpaRepository<BarberoServicio, Long> {
 
+    @EntityGraph("BarberoServicio.detalle")
     List<BarberoServicio> findByProfesionalId(Long profesionalId);
 
+    @EntityGraph("BarberoServicio.detalle")
     List<BarberoServicio> findByServicioId(Long servicioId);
 
     Optional<BarberoServicio> findByProfesionalIdAndServicioId(Long profesionalId, Long servicioId);
 
+    @EntityGraph("BarberoServicio.detalle")
     @Query("SELECT bs FROM BarberoServicio bs " +
            "WHERE bs.profesional.id = :profesionalId " +
            "AND bs.disponible = true")
     List<BarberoServicio> findServiciosDisponiblesByProfesional(@Param("profesionalId") Long profesionalId);
 
     @Query("SELECT bs FROM BarberoServicio bs " +
+           "JOIN FETCH bs.profesional p " +
+           "JOIN FETCH p.usuario " +
+           "JOIN FETCH bs.servicio " +
            "WHERE bs.servicio.id = :servicioId " +
            "AND bs.disponible = true " +
            "AND bs.profesional.activo = true " +
            "ORDER BY bs.precio ASC")
     List<BarberoServicio> findProfesionalesDisponiblesByServicio(@Param("servicioId") Long servicioId);
 
+    @Query("SELECT bs FROM BarberoServicio bs " +
+           "JOIN FETCH bs.profesional p " +
+           "JOIN FETCH p.usuario " +
+           "JOIN FETCH bs.servicio " +
+           "WHERE bs.servicio.id IN :servicioIds " +
+           "AND bs.disponible = true " +
+           "AND p.activo = true")
+    List<BarberoServicio> findDisponiblesByServicioIds(@Param("servicioIds") Collection<Long> servicioIds);
+
+    @Query("SELECT DISTINCT bs.profesional.id FROM BarberoServicio bs " +
+           "WHERE bs.servicio.id IN :servicioIds " +
+           "AND bs.disponible = true " +
+           "AND bs.profesional.activo = true")
+    List<Long> findProfesionalIdsDisponiblesByServicioIds(@Param("servicioIds") Collection<Long> servicioIds);
+
     boolean existsByProfesionalIdAndServicioId(Long profesionalId, Long servicioId);
 
     @Query("SELECT COUNT(bs) FROM BarberoServicio bs WHERE bs.profesional.id = :profesionalId")
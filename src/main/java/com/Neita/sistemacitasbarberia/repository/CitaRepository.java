@@ -1,32 +1,114 @@
 package com.Neita.sistemacitasbarberia.repository;
 
+import com.Neita.sistemacitasbarberia.dto.CierreDiaDTO;
+import com.Neita.sistemacitasbarberia.dto.CitaDTO;
 import com.Neita.sistemacitasbarberia.entity.Cita;
 import com.Neita.sistemacitasbarberia.entity.Cita.EstadoCita;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CitaRepository extends JpaRepository<Cita, Long> {
 
+    @Override
+    @EntityGraph("Cita.detalle")
+    List<Cita> findAll();
+
+    // Páginas por clave (fecha_hora, id) descendente: continúan tras el cursor de la página anterior
+    @EntityGraph("Cita.detalle")
+    @Query("SELECT c FROM Cita c " +
+           "WHERE c.fechaHora <= :fecha AND (c.fechaHora < :fecha OR c.id < :id) " +
+           "ORDER BY c.fechaHora DESC, c.id DESC")
+    List<Cita> findPaginaAnteriorA(@Param("fecha") LocalDateTime fecha, @Param("id") Long id, Limit limite);
+
+    @EntityGraph("Cita.detalle")
+    @Query("SELECT c FROM Cita c " +
+           "WHERE c.profesional.id = :profesionalId " +
+           "AND c.fechaHora <= :fecha AND (c.fechaHora < :fecha OR c.id < :id) " +
+           "ORDER BY c.fechaHora DESC, c.id DESC")
+    List<Cita> findPaginaByProfesionalAnteriorA(@Param("profesionalId") Long profesionalId,
+                                                @Param("fecha") LocalDateTime fecha,
+                                                @Param("id") Long id,
+                                                Limit limite);
+
+    @EntityGraph("Cita.detalle")
     List<Cita> findByUsuarioId(Long usuarioId);
 
+    @EntityGraph("Cita.detalle")
     List<Cita> findByProfesionalId(Long profesionalId);
 
+    @EntityGraph("Cita.detalle")
     List<Cita> findByEstado(EstadoCita estado);
 
+    // Proyecciones para listados: solo las columnas de la vista, sin entidades gestionadas
+    @Query("SELECT new com.Neita.sistemacitasbarberia.dto.CitaDTO$CitaSimpleDTO(" +
+           "c.id, c.fechaHora, c.estado, u.nombre, s.nombre, pu.nombre, c.precioFinal) " +
+           "FROM Cita c JOIN c.usuario u JOIN c.servicio s JOIN c.profesional p JOIN p.usuario pu " +
+           "WHERE c.usuario.id = :usuarioId " +
+           "ORDER BY c.fechaHora DESC")
+    List<CitaDTO.CitaSimpleDTO> findSimpleByUsuario(@Param("usuarioId") Long usuarioId);
+
+    @Query("SELECT new com.Neita.sistemacitasbarberia.dto.CitaDTO$CitaSimpleDTO(" +
+           "c.id, c.fechaHora, c.estado, u.nombre, s.nombre, pu.nombre, c.precioFinal) " +
+           "FROM Cita c JOIN c.usuario u JOIN c.servicio s JOIN c.profesional p JOIN p.usuario pu " +
+           "WHERE c.profesional.id = :profesionalId " +
+           "ORDER BY c.fechaHora DESC")
+    List<CitaDTO.CitaSimpleDTO> findSimpleByProfesional(@Param("profesionalId") Long profesionalId);
+
+    // Exportación en flujo: con fetch size Integer.MIN_VALUE el driver de MySQL entrega las filas
+    // una a una en lugar de cargar el resultado completo. Debe consumirse dentro de una transacción.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.Neita.sistemacitasbarberia.dto.CitaDTO$CitaExportacionDTO(" +
+           "c.id, c.fechaHora, c.estado, c.precioFinal, s.nombre, u.nombre, u.email, pu.nombre, " +
+           "c.fechaCreacion, c.fechaCompletada) " +
+           "FROM Cita c JOIN c.usuario u JOIN c.servicio s JOIN c.profesional p JOIN p.usuario pu " +
+           "WHERE c.fechaHora >= :desde AND c.fechaHora < :hasta " +
+           "ORDER BY c.id ASC")
+    Stream<CitaDTO.CitaExportacionDTO> streamParaExportacion(@Param("desde") LocalDateTime desde,
+                                                             @Param("hasta") LocalDateTime hasta);
+
+    // Citas que arrastra en cascada el borrado de un usuario (también como profesional), profesional o servicio
+    @Query("SELECT c.id FROM Cita c WHERE c.usuario.id = :usuarioId OR c.profesional.usuario.id = :usuarioId")
+    List<Long> findIdsByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    @Query("SELECT c.id FROM Cita c WHERE c.profesional.id = :profesionalId")
+    List<Long> findIdsByProfesionalId(@Param("profesionalId") Long profesionalId);
+
+    @Query("SELECT c.id FROM Cita c WHERE c.servicio.id = :servicioId")
+    List<Long> findIdsByServicioId(@Param("servicioId") Long servicioId);
+
+    @Query("SELECT c.profesional.id FROM Cita c WHERE c.id = :citaId")
+    Optional<Long> findProfesionalIdByCitaId(@Param("citaId") Long citaId);
+
+    @EntityGraph("Cita.detalle")
     @Query("SELECT c FROM Cita c WHERE c.usuario.id = :usuarioId AND c.estado = :estado")
     List<Cita> findByUsuarioIdAndEstado(@Param("usuarioId") Long usuarioId, 
                                         @Param("estado") EstadoCita estado);
 
+    @EntityGraph("Cita.detalle")
     @Query("SELECT c FROM Cita c WHERE c.profesional.id = :profesionalId AND c.estado = :estado")
     List<Cita> findByProfesionalIdAndEstado(@Param("profesionalId") Long profesionalId, 
                                             @Param("estado") EstadoCita estado);
 
+    @EntityGraph("Cita.detalle")
     @Query("SELECT c FROM Cita c " +
            "WHERE c.profesional.id = :profesionalId " +
            "AND c.fechaHora BETWEEN :inicio AND :fin " +
@@ -35,6 +117,18 @@ public interface CitaRepository extends JpaRepository<Cita, Long> {
                                                       @Param("inicio") LocalDateTime inicio,
                                                       @Param("fin") LocalDateTime fin);
 
+    @Query("SELECT c FROM Cita c JOIN FETCH c.servicio " +
+           "WHERE c.profesional.id = :profesionalId " +
+           "AND c.fechaHora >= :desde " +
+           "AND c.estado IN ('PENDIENTE', 'CONFIRMADA', 'EN_PROCESO')")
+    List<Cita> findCitasActivasDesdeByProfesional(@Param("profesionalId") Long profesionalId,
+                                                  @Param("desde") LocalDateTime desde);
+
+    @Query("SELECT c FROM Cita c JOIN FETCH c.profesional JOIN FETCH c.servicio " +
+           "WHERE c.fechaModificacion > :desde")
+    List<Cita> findModificadasDesde(@Param("desde") LocalDateTime desde);
+
+    @EntityGraph("Cita.detalle")
     @Query("SELECT c FROM Cita c " +
            "WHERE c.usuario.id = :usuarioId " +
            "AND c.fechaHora >= :fechaActual " +
@@ -42,6 +136,7 @@ public interface CitaRepository extends JpaRepository<Cita, Long> {
     List<Cita> findProximasCitasByUsuario(@Param("usuarioId") Long usuarioId,
                                           @Param("fechaActual") LocalDateTime fechaActual);
 
+    @EntityGraph("Cita.detalle")
     @Query("SELECT c FROM Cita c " +
            "WHERE c.profesional.id = :profesionalId " +
            "AND c.fechaHora >= :fechaActual " +
@@ -49,12 +144,106 @@ public interface CitaRepository extends JpaRepository<Cita, Long> {
     List<Cita> findProximasCitasByProfesional(@Param("profesionalId") Long profesionalId,
                                                @Param("fechaActual") LocalDateTime fechaActual);
 
+    @EntityGraph("Cita.detalle")
     @Query("SELECT c FROM Cita c " +
            "WHERE c.usuario.id = :usuarioId " +
            "AND c.estado = 'COMPLETADA' " +
            "ORDER BY c.fechaCompletada DESC")
     List<Cita> findHistorialByUsuario(@Param("usuarioId") Long usuarioId);
 
+    @Query("SELECT new com.Neita.sistemacitasbarberia.dto.CierreDiaDTO$ClienteAfectadoDTO(" +
+           "c.id, c.fechaHora, u.id, u.nombre, u.email, u.telefono) " +
+           "FROM Cita c JOIN c.usuario u " +
+           "WHERE c.profesional.id = :profesionalId " +
+           "AND c.fechaHora >= :desde AND c.fechaHora < :hasta " +
+           "AND c.estado IN ('PENDIENTE', 'CONFIRMADA') " +
+           "ORDER BY c.fechaHora ASC")
+    List<CierreDiaDTO.ClienteAfectadoDTO> findClientesAfectadosByProfesionalAndRango(
+            @Param("profesionalId") Long profesionalId,
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta);
+
+    // Cancela exactamente las citas leídas antes, para que los avisos y el recuento coincidan
+    @Modifying
+    @Query("UPDATE Cita c SET c.estado = 'CANCELADA', c.fechaModificacion = CURRENT_TIMESTAMP " +
+           "WHERE c.id IN :citaIds AND c.estado IN ('PENDIENTE', 'CONFIRMADA')")
+    int cancelarPorIds(@Param("citaIds") Collection<Long> citaIds);
+
+    // Marcado en bloque de las citas pendientes afectadas por una excepción de horario. Cada consulta
+    // tiene una variante para toda la barbería: con "(:profesionalId IS NULL OR ...)" MySQL no puede
+    // usar (profesional_id, fecha_hora, estado) y recorre la tabla entera. El rango es [desde, hasta).
+    @Modifying
+    @Query("UPDATE Cita c SET c.requiereReprogramacion = true, c.fechaModificacion = CURRENT_TIMESTAMP " +
+           "WHERE c.profesional.id = :profesionalId " +
+           "AND c.fechaHora >= :desde AND c.fechaHora < :hasta " +
+           "AND c.estado IN ('PENDIENTE', 'CONFIRMADA')")
+    int marcarParaReprogramarEnRango(@Param("profesionalId") Long profesionalId,
+                                     @Param("desde") LocalDateTime desde,
+                                     @Param("hasta") LocalDateTime hasta);
+
+    @Modifying
+    @Query("UPDATE Cita c SET c.requiereReprogramacion = true, c.fechaModificacion = CURRENT_TIMESTAMP " +
+           "WHERE c.fechaHora >= :desde AND c.fechaHora < :hasta " +
+           "AND c.estado IN ('PENDIENTE', 'CONFIRMADA')")
+    int marcarParaReprogramarEnRangoEnBarberia(@Param("desde") LocalDateTime desde,
+                                               @Param("hasta") LocalDateTime hasta);
+
+    @Modifying
+    @Query(value = "UPDATE cita c JOIN servicio s ON s.id = c.servicio_id " +
+                   "SET c.requiere_reprogramacion = TRUE, c.fecha_modificacion = NOW() " +
+                   "WHERE c.profesional_id = :profesionalId " +
+                   "AND c.fecha_hora >= :desde AND c.fecha_hora < :hasta " +
+                   "AND c.estado IN ('PENDIENTE', 'CONFIRMADA') " +
+                   "AND TIME(c.fecha_hora) < :horaFin " +
+                   "AND ADDTIME(TIME(c.fecha_hora), SEC_TO_TIME(s.duracion_minutos * 60)) > :horaInicio",
+           nativeQuery = true)
+    int marcarParaReprogramarSolapadas(@Param("profesionalId") Long profesionalId,
+                                       @Param("desde") LocalDateTime desde,
+                                       @Param("hasta") LocalDateTime hasta,
+                                       @Param("horaInicio") LocalTime horaInicio,
+                                       @Param("horaFin") LocalTime horaFin);
+
+    @Modifying
+    @Query(value = "UPDATE cita c JOIN servicio s ON s.id = c.servicio_id " +
+                   "SET c.requiere_reprogramacion = TRUE, c.fecha_modificacion = NOW() " +
+                   "WHERE c.fecha_hora >= :desde AND c.fecha_hora < :hasta " +
+                   "AND c.estado IN ('PENDIENTE', 'CONFIRMADA') " +
+                   "AND TIME(c.fecha_hora) < :horaFin " +
+                   "AND ADDTIME(TIME(c.fecha_hora), SEC_TO_TIME(s.duracion_minutos * 60)) > :horaInicio",
+           nativeQuery = true)
+    int marcarParaReprogramarSolapadasEnBarberia(@Param("desde") LocalDateTime desde,
+                                                 @Param("hasta") LocalDateTime hasta,
+                                                 @Param("horaInicio") LocalTime horaInicio,
+                                                 @Param("horaFin") LocalTime horaFin);
+
+    @Modifying
+    @Query(value = "UPDATE cita c JOIN servicio s ON s.id = c.servicio_id " +
+                   "SET c.requiere_reprogramacion = TRUE, c.fecha_modificacion = NOW() " +
+                   "WHERE c.profesional_id = :profesionalId " +
+                   "AND c.fecha_hora >= :desde AND c.fecha_hora < :hasta " +
+                   "AND c.estado IN ('PENDIENTE', 'CONFIRMADA') " +
+                   "AND (TIME(c.fecha_hora) < :horaInicio " +
+                   "OR ADDTIME(TIME(c.fecha_hora), SEC_TO_TIME(s.duracion_minutos * 60)) > :horaFin)",
+           nativeQuery = true)
+    int marcarParaReprogramarFueraDe(@Param("profesionalId") Long profesionalId,
+                                     @Param("desde") LocalDateTime desde,
+                                     @Param("hasta") LocalDateTime hasta,
+                                     @Param("horaInicio") LocalTime horaInicio,
+                                     @Param("horaFin") LocalTime horaFin);
+
+    @Modifying
+    @Query(value = "UPDATE cita c JOIN servicio s ON s.id = c.servicio_id " +
+                   "SET c.requiere_reprogramacion = TRUE, c.fecha_modificacion = NOW() " +
+                   "WHERE c.fecha_hora >= :desde AND c.fecha_hora < :hasta " +
+                   "AND c.estado IN ('PENDIENTE', 'CONFIRMADA') " +
+                   "AND (TIME(c.fecha_hora) < :horaInicio " +
+                   "OR ADDTIME(TIME(c.fecha_hora), SEC_TO_TIME(s.duracion_minutos * 60)) > :horaFin)",
+           nativeQuery = true)
+    int marcarParaReprogramarFueraDeEnBarberia(@Param("desde") LocalDateTime desde,
+                                               @Param("hasta") LocalDateTime hasta,
+                                               @Param("horaInicio") LocalTime horaInicio,
+                                               @Param("horaFin") LocalTime horaFin);
+
     @Query("SELECT COUNT(c) FROM Cita c WHERE c.estado = :estado")
     Long contarPorEstado(@Param("estado") EstadoCita estado);
 
@@ -0,0 +1,26 @@
+package com.Neita.sistemacitasbarberia.repository;
+
+import com.Neita.sistemacitasbarberia.entity.ExcepcionHorario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ExcepcionHorarioRepository extends JpaRepository<ExcepcionHorario, Long> {
+
+    @Query("SELECT e FROM ExcepcionHorario e LEFT JOIN FETCH e.profesional " +
+           "WHERE e.fechaFin >= :desde ORDER BY e.fechaInicio ASC")
+    List<ExcepcionHorario> findVigentesDesde(@Param("desde") LocalDate desde);
+
+    // Cierre de día completo que ya cubre la fecha, propio del profesional o de toda la barbería
+    @Query("SELECT COUNT(e) > 0 FROM ExcepcionHorario e " +
+           "WHERE (e.profesional IS NULL OR e.profesional.id = :profesionalId) " +
+           "AND e.tipo = 'CERRADO' AND e.fechaInicio <= :fecha AND e.fechaFin >= :fecha " +
+           "AND (e.horaInicio IS NULL OR e.horaFin IS NULL)")
+    boolean existeCierreDiaCompleto(@Param("profesionalId") Long profesionalId,
+                                    @Param("fecha") LocalDate fecha);
+}
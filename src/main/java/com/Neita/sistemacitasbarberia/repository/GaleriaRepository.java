@@ -1,29 +1,52 @@
 package com.Neita.sistemacitasbarberia.repository;
 
+import com.Neita.sistemacitasbarberia.dto.GaleriaDTO;
 import com.Neita.sistemacitasbarberia.entity.Galeria;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface GaleriaRepository extends JpaRepository<Galeria, Long> {
 
+    @EntityGraph("Galeria.detalle")
     List<Galeria> findByProfesionalId(Long profesionalId);
 
+    @EntityGraph("Galeria.detalle")
     @Query("SELECT g FROM Galeria g " +
            "WHERE g.profesional.id = :profesionalId " +
            "AND g.visible = true " +
            "ORDER BY g.fechaSubida DESC")
     List<Galeria> findVisiblesByProfesional(@Param("profesionalId") Long profesionalId);
 
+    @EntityGraph("Galeria.detalle")
     @Query("SELECT g FROM Galeria g " +
            "WHERE g.visible = true " +
            "ORDER BY g.fechaSubida DESC")
     List<Galeria> findAllVisibles();
 
+    @EntityGraph("Galeria.detalle")
+    @Query("SELECT g FROM Galeria g " +
+           "WHERE g.visible = true " +
+           "AND g.fechaSubida <= :fecha AND (g.fechaSubida < :fecha OR g.id < :id) " +
+           "ORDER BY g.fechaSubida DESC, g.id DESC")
+    List<Galeria> findPaginaVisiblesAnteriorA(@Param("fecha") LocalDateTime fecha,
+                                              @Param("id") Long id,
+                                              Limit limite);
+
+    @Query("SELECT new com.Neita.sistemacitasbarberia.dto.GaleriaDTO$GaleriaSimpleDTO(" +
+           "g.id, g.titulo, g.urlImagen, g.fechaSubida, p.id, u.nombre) " +
+           "FROM Galeria g JOIN g.profesional p JOIN p.usuario u " +
+           "WHERE g.visible = true " +
+           "ORDER BY g.fechaSubida DESC")
+    List<GaleriaDTO.GaleriaSimpleDTO> findSimpleVisibles();
+
     @Query("SELECT COUNT(g) FROM Galeria g WHERE g.profesional.id = :profesionalId")
     Long contarPorProfesional(@Param("profesionalId") Long profesionalId);
 }
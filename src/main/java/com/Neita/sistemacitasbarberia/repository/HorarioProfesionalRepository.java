@@ -0,0 +1,20 @@
+package com.Neita.sistemacitasbarberia.repository;
+
+import com.Neita.sistemacitasbarberia.entity.HorarioProfesional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface HorarioProfesionalRepository extends JpaRepository<HorarioProfesional, Long> {
+
+    List<HorarioProfesional> findByProfesionalIdOrderByDiaSemanaAscHoraInicioAsc(Long profesionalId);
+
+    @Modifying
+    @Query("DELETE FROM HorarioProfesional h WHERE h.profesional.id = :profesionalId")
+    int eliminarPorProfesional(@Param("profesionalId") Long profesionalId);
+}
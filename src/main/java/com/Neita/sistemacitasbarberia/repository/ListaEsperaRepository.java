@@ -0,0 +1,44 @@
+package com.Neita.sistemacitasbarberia.repository;
+
+import com.Neita.sistemacitasbarberia.entity.ListaEspera;
+import com.Neita.sistemacitasbarberia.entity.ListaEspera.EstadoListaEspera;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ListaEsperaRepository extends JpaRepository<ListaEspera, Long> {
+
+    List<ListaEspera> findByUsuarioIdOrderByFechaCreacionDesc(Long usuarioId);
+
+    // Solicitudes que la clave foránea borra en cascada con su usuario, profesional o servicio
+    @Query("SELECT l.id FROM ListaEspera l WHERE l.usuario.id = :usuarioId OR l.profesional.usuario.id = :usuarioId")
+    List<Long> findIdsByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    @Query("SELECT l.id FROM ListaEspera l WHERE l.profesional.id = :profesionalId")
+    List<Long> findIdsByProfesionalId(@Param("profesionalId") Long profesionalId);
+
+    @Query("SELECT l.id FROM ListaEspera l WHERE l.servicio.id = :servicioId")
+    List<Long> findIdsByServicioId(@Param("servicioId") Long servicioId);
+
+    // Solo se usa al arrancar para poblar el índice en memoria
+    @Query("SELECT l FROM ListaEspera l JOIN FETCH l.servicio " +
+           "WHERE l.estado = :estado AND l.ventanaFin > :ahora")
+    List<ListaEspera> findVigentesByEstado(@Param("estado") EstadoListaEspera estado,
+                                           @Param("ahora") LocalDateTime ahora);
+
+    // Las retenciones viven en memoria: tras un reinicio ninguna oferta pendiente sigue retenida
+    @Modifying
+    @Query("UPDATE ListaEspera l SET l.estado = 'ACTIVA', l.retencionId = NULL, l.fechaOferta = NULL " +
+           "WHERE l.estado = 'OFRECIDA'")
+    int reactivarOfertasPendientes();
+
+    @Modifying
+    @Query("UPDATE ListaEspera l SET l.estado = 'CADUCADA' WHERE l.estado = 'ACTIVA' AND l.ventanaFin <= :ahora")
+    int caducarVencidas(@Param("ahora") LocalDateTime ahora);
+}
@@ -1,6 +1,8 @@
 package com.Neita.sistemacitasbarberia.repository;
 
+import com.Neita.sistemacitasbarberia.dto.ProductoDTO;
 import com.Neita.sistemacitasbarberia.entity.Producto;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,12 +15,22 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
 
     List<Producto> findByDisponibleTrue();
 
+    @Query("SELECT p FROM Producto p WHERE p.id > :id ORDER BY p.id ASC")
+    List<Producto> findPaginaPosteriorA(@Param("id") Long id, Limit limite);
+
     List<Producto> findByCategoria(String categoria);
 
     List<Producto> findByMarca(String marca);
 
     List<Producto> findByNombreContainingIgnoreCase(String nombre);
 
+    @Query("SELECT new com.Neita.sistemacitasbarberia.dto.ProductoDTO$ProductoSimpleDTO(" +
+           "p.id, p.nombre, p.precio, p.stock, p.imagenProducto, p.categoria) " +
+           "FROM Producto p " +
+           "WHERE p.disponible = true " +
+           "ORDER BY p.nombre ASC")
+    List<ProductoDTO.ProductoSimpleDTO> findSimpleDisponibles();
+
     @Query("SELECT p FROM Producto p WHERE p.disponible = true AND p.stock > 0")
     List<Producto> findProductosEnStock();
 
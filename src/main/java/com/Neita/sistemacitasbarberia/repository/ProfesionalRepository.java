@@ -1,5 +1,6 @@
 package com.Neita.sistemacitasbarberia.repository;
 
+import com.Neita.sistemacitasbarberia.dto.ProfesionalDTO;
 import com.Neita.sistemacitasbarberia.entity.Profesional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -18,6 +19,13 @@ public interface ProfesionalRepository extends JpaRepository<Profesional, Long>
 
     List<Profesional> findByEspecialidadContainingIgnoreCaseAndActivoTrue(String especialidad);
 
+    @Query("SELECT new com.Neita.sistemacitasbarberia.dto.ProfesionalDTO$ProfesionalSimpleDTO(" +
+           "p.id, u.nombre, p.especialidad, p.fotoPerfil, p.calificacionPromedio, p.activo) " +
+           "FROM Profesional p JOIN p.usuario u " +
+           "WHERE p.activo = true " +
+           "ORDER BY u.nombre ASC")
+    List<ProfesionalDTO.ProfesionalSimpleDTO> findSimpleActivos();
+
     @Query("SELECT p FROM Profesional p WHERE p.activo = true ORDER BY p.calificacionPromedio DESC")
     List<Profesional> findTopRated();
 
@@ -0,0 +1,22 @@
+package com.Neita.sistemacitasbarberia.repository;
+
+import com.Neita.sistemacitasbarberia.entity.ReservaSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface ReservaSlotRepository extends JpaRepository<ReservaSlot, Long> {
+
+    @Modifying
+    @Query("DELETE FROM ReservaSlot r WHERE r.cita.id = :citaId")
+    int eliminarPorCita(@Param("citaId") Long citaId);
+
+    @Modifying
+    @Query("DELETE FROM ReservaSlot r WHERE r.cita.id IN :citaIds")
+    int eliminarPorCitas(@Param("citaIds") Collection<Long> citaIds);
+}
@@ -1,6 +1,8 @@
 package com.Neita.sistemacitasbarberia.repository;
 
 import com.Neita.sistemacitasbarberia.entity.Usuario;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -18,6 +20,11 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
     List<Usuario> findByActivoTrue();
 
+    // El perfil de profesional es un uno a uno inverso y se cargaría con una consulta por fila
+    @EntityGraph(attributePaths = "profesional")
+    @Query("SELECT u FROM Usuario u WHERE u.id > :id ORDER BY u.id ASC")
+    List<Usuario> findPaginaPosteriorA(@Param("id") Long id, Limit limite);
+
     @Query("SELECT u FROM Usuario u WHERE u.nombre LIKE %:nombre% AND u.activo = true")
     List<Usuario> buscarPorNombre(@Param("nombre") String nombre);
 }
@@ -1,28 +1,44 @@
 package com.Neita.sistemacitasbarberia.repository;
 
 import com.Neita.sistemacitasbarberia.entity.Valoracion;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ValoracionRepository extends JpaRepository<Valoracion, Long> {
 
+    @EntityGraph("Valoracion.detalle")
     List<Valoracion> findByProfesionalId(Long profesionalId);
 
+    @EntityGraph("Valoracion.detalle")
     List<Valoracion> findByUsuarioId(Long usuarioId);
 
     Optional<Valoracion> findByCitaId(Long citaId);
 
+    @EntityGraph("Valoracion.detalle")
     @Query("SELECT v FROM Valoracion v " +
            "WHERE v.profesional.id = :profesionalId " +
            "ORDER BY v.fechaValoracion DESC")
     List<Valoracion> findByProfesionalIdOrderByFechaDesc(@Param("profesionalId") Long profesionalId);
 
+    @EntityGraph("Valoracion.detalle")
+    @Query("SELECT v FROM Valoracion v " +
+           "WHERE v.profesional.id = :profesionalId " +
+           "AND v.fechaValoracion <= :fecha AND (v.fechaValoracion < :fecha OR v.id < :id) " +
+           "ORDER BY v.fechaValoracion DESC, v.id DESC")
+    List<Valoracion> findPaginaByProfesionalAnteriorA(@Param("profesionalId") Long profesionalId,
+                                                      @Param("fecha") LocalDateTime fecha,
+                                                      @Param("id") Long id,
+                                                      Limit limite);
+
     @Query("SELECT AVG(v.calificacion) FROM Valoracion v WHERE v.profesional.id = :profesionalId")
     Double calcularPromedioByProfesional(@Param("profesionalId") Long profesionalId);
 
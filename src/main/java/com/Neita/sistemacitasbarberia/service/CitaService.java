@@ -1,20 +1,45 @@
 package com.Neita.sistemacitasbarberia.service;
 
+import com.Neita.sistemacitasbarberia.agenda.AsignacionGrupo;
+import com.Neita.sistemacitasbarberia.agenda.CacheDisponibilidad;
+import com.Neita.sistemacitasbarberia.agenda.CalendarioExcepciones;
+import com.Neita.sistemacitasbarberia.agenda.CitaCanceladaEvento;
+import com.Neita.sistemacitasbarberia.agenda.EstrategiaAsignacion;
+import com.Neita.sistemacitasbarberia.agenda.HorariosCompilados;
+import com.Neita.sistemacitasbarberia.agenda.IndiceAgenda;
+import com.Neita.sistemacitasbarberia.agenda.IndiceIntervalos;
+import com.Neita.sistemacitasbarberia.agenda.MapaSlots;
+import com.Neita.sistemacitasbarberia.agenda.RetencionesAgenda;
+import com.Neita.sistemacitasbarberia.agenda.TrasCommit;
+import com.Neita.sistemacitasbarberia.config.LecturaPrimario;
+import com.Neita.sistemacitasbarberia.dto.CierreDiaDTO;
 import com.Neita.sistemacitasbarberia.dto.CitaDTO;
+import com.Neita.sistemacitasbarberia.dto.PaginaDTO;
+import com.Neita.sistemacitasbarberia.dto.ReasignacionDTO;
 import com.Neita.sistemacitasbarberia.entity.*;
 import com.Neita.sistemacitasbarberia.entity.Cita.EstadoCita;
 import com.Neita.sistemacitasbarberia.exception.BadRequestException;
+import com.Neita.sistemacitasbarberia.exception.ConflictException;
 import com.Neita.sistemacitasbarberia.exception.ResourceNotFoundException;
 import com.Neita.sistemacitasbarberia.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,14 +48,35 @@ import java.util.stream.Collectors;
 public class CitaService {
 
     private static final Logger logger = LoggerFactory.getLogger(CitaService.class);
+
+    private static final int MAXIMO_ALTERNATIVAS_GRUPO = 5;
     
     private final CitaRepository citaRepository;
     private final UsuarioRepository usuarioRepository;
     private final ServicioRepository servicioRepository;
     private final ProfesionalRepository profesionalRepository;
     private final BarberoServicioRepository barberoServicioRepository;
+    private final IndiceAgenda indiceAgenda;
+    private final RetencionesAgenda retencionesAgenda;
+    private final HorariosCompilados horariosCompilados;
+    private final CalendarioExcepciones calendarioExcepciones;
+    private final DisponibilidadService disponibilidadService;
+    private final EstrategiaAsignacion estrategiaAsignacion;
+    private final CacheDisponibilidad cacheDisponibilidad;
+    private final ExcepcionHorarioRepository excepcionHorarioRepository;
+    private final ReservaSlotService reservaSlotService;
+    private final ListaEsperaService listaEsperaService;
+    private final ListaEsperaRepository listaEsperaRepository;
+    private final LecturaPrimario lecturaPrimario;
+    private final ApplicationEventPublisher eventPublisher;
     private final ModelMapper modelMapper;
 
+    @Value("${agenda.paso-inicio-minutos:15}")
+    private int pasoInicioMinutos;
+
+    @Value("${agenda.busqueda.dias-maximo:14}")
+    private int diasMaximoBusqueda;
+
     @Transactional(readOnly = true)
     public CitaDTO obtenerPorId(Long id) {
         logger.debug("Buscando cita con ID: {}", id);
@@ -39,12 +85,20 @@ public class CitaService {
         return convertirADTO(cita);
     }
 
+    // Decide qué carril se toma, así que se lee del primario y no de la réplica
+    public Long obtenerProfesionalId(Long id) {
+        return lecturaPrimario.ejecutar(() -> citaRepository.findProfesionalIdByCitaId(id))
+                .orElseThrow(() -> new ResourceNotFoundException("Cita", "id", id));
+    }
+
     @Transactional(readOnly = true)
-    public List<CitaDTO> obtenerTodas() {
-        logger.debug("Obteniendo todas las citas");
-        return citaRepository.findAll().stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public PaginaDTO<CitaDTO> obtenerTodas(String cursor, Integer tamano) {
+        logger.debug("Obteniendo página de citas desde cursor: {}", cursor);
+        int limite = Paginacion.tamano(tamano);
+        Paginacion.Cursor desde = Paginacion.cursorDescendente(cursor);
+        List<Cita> citas = citaRepository.findPaginaAnteriorA(desde.fecha(), desde.id(), Paginacion.limite(limite));
+        return Paginacion.pagina(citas, limite, this::convertirADTO,
+                c -> Paginacion.codificar(c.getFechaHora(), c.getId()));
     }
 
     @Transactional(readOnly = true)
@@ -56,11 +110,26 @@ public class CitaService {
     }
 
     @Transactional(readOnly = true)
-    public List<CitaDTO> obtenerPorProfesional(Long profesionalId) {
-        logger.debug("Obteniendo citas del profesional con ID: {}", profesionalId);
-        return citaRepository.findByProfesionalId(profesionalId).stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public List<CitaDTO.CitaSimpleDTO> obtenerSimplesPorUsuario(Long usuarioId) {
+        logger.debug("Obteniendo listado simple de citas del usuario con ID: {}", usuarioId);
+        return citaRepository.findSimpleByUsuario(usuarioId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CitaDTO.CitaSimpleDTO> obtenerSimplesPorProfesional(Long profesionalId) {
+        logger.debug("Obteniendo listado simple de citas del profesional con ID: {}", profesionalId);
+        return citaRepository.findSimpleByProfesional(profesionalId);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaDTO<CitaDTO> obtenerPorProfesional(Long profesionalId, String cursor, Integer tamano) {
+        logger.debug("Obteniendo página de citas del profesional con ID: {}", profesionalId);
+        int limite = Paginacion.tamano(tamano);
+        Paginacion.Cursor desde = Paginacion.cursorDescendente(cursor);
+        List<Cita> citas = citaRepository.findPaginaByProfesionalAnteriorA(
+                profesionalId, desde.fecha(), desde.id(), Paginacion.limite(limite));
+        return Paginacion.pagina(citas, limite, this::convertirADTO,
+                c -> Paginacion.codificar(c.getFechaHora(), c.getId()));
     }
 
     @Transactional(readOnly = true)
@@ -88,6 +157,11 @@ public class CitaService {
     }
 
     public CitaDTO crear(CitaDTO.CrearCitaDTO crearDTO) {
+        return crear(crearDTO, null);
+    }
+
+    // Crea la cita ignorando la retención propia que se está confirmando (si la hay)
+    public CitaDTO crear(CitaDTO.CrearCitaDTO crearDTO, Long retencionId) {
         logger.info("Creando nueva cita");
         
         Usuario usuario = usuarioRepository.findById(crearDTO.getUsuarioId())
@@ -96,12 +170,17 @@ public class CitaService {
         com.Neita.sistemacitasbarberia.entity.Servicio servicio = servicioRepository.findById(crearDTO.getServicioId())
                 .orElseThrow(() -> new ResourceNotFoundException("Servicio", "id", crearDTO.getServicioId()));
         
-        Profesional profesional = profesionalRepository.findById(crearDTO.getProfesionalId())
-                .orElseThrow(() -> new ResourceNotFoundException("Profesional", "id", crearDTO.getProfesionalId()));
+        // Sin preferencia, la estrategia de asignación elige el profesional
+        Long profesionalId = crearDTO.getProfesionalId() != null
+                ? crearDTO.getProfesionalId()
+                : asignarProfesional(servicio, crearDTO.getFechaHora());
+        
+        Profesional profesional = profesionalRepository.findById(profesionalId)
+                .orElseThrow(() -> new ResourceNotFoundException("Profesional", "id", profesionalId));
         
         // Validar que el profesional ofrece el servicio
         BarberoServicio barberoServicio = barberoServicioRepository
-                .findByProfesionalIdAndServicioId(crearDTO.getProfesionalId(), crearDTO.getServicioId())
+                .findByProfesionalIdAndServicioId(profesionalId, crearDTO.getServicioId())
                 .orElseThrow(() -> new BadRequestException("El profesional no ofrece este servicio"));
         
         if (!barberoServicio.getDisponible()) {
@@ -109,7 +188,8 @@ public class CitaService {
         }
         
         // Validar disponibilidad de horario
-        validarDisponibilidadHorario(crearDTO.getProfesionalId(), crearDTO.getFechaHora());
+        validarDisponibilidadHorario(profesionalId, crearDTO.getFechaHora(),
+                servicio.getDuracionEnMinutos(), null, retencionId);
 
         Cita cita = Cita.builder()
                 .usuario(usuario)
@@ -122,19 +202,395 @@ public class CitaService {
                 .build();
         
         Cita citaGuardada = citaRepository.save(cita);
+        reservaSlotService.reservar(citaGuardada);
+        registrarCambio(citaGuardada);
+        if (retencionId != null) {
+            listaEsperaService.marcarAtendida(retencionId);
+        }
         logger.info("Cita creada exitosamente con ID: {}", citaGuardada.getId());
         
         return convertirADTO(citaGuardada);
     }
 
+    public Set<Long> profesionalesParaServicio(Long servicioId) {
+        return new HashSet<>(lecturaPrimario.ejecutar(() ->
+                barberoServicioRepository.findProfesionalIdsDisponiblesByServicioIds(List.of(servicioId))));
+    }
+
+    // Valida todas las ocurrencias en memoria y guarda las libres en una sola transacción
+    public CitaDTO.ResultadoSerieDTO crearSerie(CitaDTO.CrearSerieCitaDTO serieDTO) {
+        logger.info("Creando serie de {} citas cada {} días", serieDTO.getOcurrencias(), serieDTO.getIntervaloDias());
+        
+        Usuario usuario = usuarioRepository.findById(serieDTO.getUsuarioId())
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario", "id", serieDTO.getUsuarioId()));
+        
+        com.Neita.sistemacitasbarberia.entity.Servicio servicio = servicioRepository.findById(serieDTO.getServicioId())
+                .orElseThrow(() -> new ResourceNotFoundException("Servicio", "id", serieDTO.getServicioId()));
+        
+        Profesional profesional = profesionalRepository.findById(serieDTO.getProfesionalId())
+                .orElseThrow(() -> new ResourceNotFoundException("Profesional", "id", serieDTO.getProfesionalId()));
+        
+        BarberoServicio barberoServicio = barberoServicioRepository
+                .findByProfesionalIdAndServicioId(serieDTO.getProfesionalId(), serieDTO.getServicioId())
+                .orElseThrow(() -> new BadRequestException("El profesional no ofrece este servicio"));
+        
+        if (!barberoServicio.getDisponible()) {
+            throw new BadRequestException("El servicio no está disponible con este profesional");
+        }
+        
+        int duracionMinutos = servicio.getDuracionEnMinutos();
+        List<Cita> citas = new ArrayList<>();
+        List<CitaDTO.ConflictoDTO> conflictos = new ArrayList<>();
+        
+        for (int i = 0; i < serieDTO.getOcurrencias(); i++) {
+            LocalDateTime fechaHora = serieDTO.getFechaHora().plusDays((long) i * serieDTO.getIntervaloDias());
+            try {
+                validarDisponibilidadHorario(profesional.getId(), fechaHora, duracionMinutos, null, null);
+            } catch (BadRequestException | ConflictException ex) {
+                conflictos.add(new CitaDTO.ConflictoDTO(fechaHora, ex.getMessage()));
+                continue;
+            }
+            citas.add(Cita.builder()
+                    .usuario(usuario)
+                    .servicio(servicio)
+                    .profesional(profesional)
+                    .fechaHora(fechaHora)
+                    .notas(serieDTO.getNotas())
+                    .estado(EstadoCita.PENDIENTE)
+                    .precioFinal(barberoServicio.getPrecio())
+                    .build());
+        }
+        
+        List<Cita> citasGuardadas = citaRepository.saveAll(citas);
+        reservaSlotService.reservar(citasGuardadas);
+        citasGuardadas.forEach(this::registrarCambio);
+        logger.info("Serie creada: {} citas, {} conflictos", citasGuardadas.size(), conflictos.size());
+        
+        return CitaDTO.ResultadoSerieDTO.builder()
+                .creadas(citasGuardadas.stream().map(this::convertirADTO).collect(Collectors.toList()))
+                .conflictos(conflictos)
+                .build();
+    }
+
+    // Profesionales cuyas agendas puede tocar el combo; se bloquean antes de abrir la transacción
+    public Set<Long> profesionalesParaCombo(CitaDTO.CrearComboCitaDTO comboDTO) {
+        if (comboDTO.getProfesionalId() != null && !Boolean.TRUE.equals(comboDTO.getPermitirRelevo())) {
+            return Set.of(comboDTO.getProfesionalId());
+        }
+        return new HashSet<>(lecturaPrimario.ejecutar(() -> barberoServicioRepository
+                .findProfesionalIdsDisponiblesByServicioIds(comboDTO.getServicioIds())));
+    }
+
+    // Reserva los servicios uno tras otro sin huecos, con un solo profesional si es posible
+    // o con un relevo entre dos. Todas las partes se validan y guardan juntas.
+    public CitaDTO.ResultadoComboDTO crearCombo(CitaDTO.CrearComboCitaDTO comboDTO) {
+        logger.info("Creando combo de {} servicios a las {}", comboDTO.getServicioIds().size(), comboDTO.getFechaHora());
+        
+        Usuario usuario = usuarioRepository.findById(comboDTO.getUsuarioId())
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario", "id", comboDTO.getUsuarioId()));
+        
+        // Ofertas de cada profesional para los servicios del combo, leídas en una sola consulta
+        Map<Long, Map<Long, BarberoServicio>> ofertas = new HashMap<>();
+        for (BarberoServicio bs : barberoServicioRepository.findDisponiblesByServicioIds(comboDTO.getServicioIds())) {
+            ofertas.computeIfAbsent(bs.getProfesional().getId(), k -> new HashMap<>())
+                    .put(bs.getServicio().getId(), bs);
+        }
+        
+        List<Long> primeros = comboDTO.getProfesionalId() != null
+                ? List.of(comboDTO.getProfesionalId())
+                : new ArrayList<>(ofertas.keySet());
+        boolean permitirRelevo = Boolean.TRUE.equals(comboDTO.getPermitirRelevo());
+        
+        List<BarberoServicio> plan = planificarCombo(comboDTO.getServicioIds(), comboDTO.getFechaHora(),
+                primeros, ofertas, permitirRelevo);
+        if (plan == null) {
+            throw new ConflictException("No hay un intervalo libre y contiguo para el combo a esa hora");
+        }
+        
+        List<Cita> citas = new ArrayList<>();
+        LocalDateTime inicio = comboDTO.getFechaHora();
+        for (BarberoServicio parte : plan) {
+            citas.add(Cita.builder()
+                    .usuario(usuario)
+                    .servicio(parte.getServicio())
+                    .profesional(parte.getProfesional())
+                    .fechaHora(inicio)
+                    .notas(comboDTO.getNotas())
+                    .estado(EstadoCita.PENDIENTE)
+                    .precioFinal(parte.getPrecio())
+                    .build());
+            inicio = inicio.plusMinutes(parte.getServicio().getDuracionEnMinutos());
+        }
+        
+        List<Cita> citasGuardadas = citaRepository.saveAll(citas);
+        reservaSlotService.reservar(citasGuardadas);
+        citasGuardadas.forEach(this::registrarCambio);
+        logger.info("Combo creado con {} citas hasta las {}", citasGuardadas.size(), inicio);
+        
+        return CitaDTO.ResultadoComboDTO.builder()
+                .citas(citasGuardadas.stream().map(this::convertirADTO).collect(Collectors.toList()))
+                .duracionTotalMinutos(duracionTotal(plan))
+                .precioTotal(plan.stream().mapToDouble(BarberoServicio::getPrecio).sum())
+                .fechaHoraFin(inicio)
+                .build();
+    }
+
+    public Set<Long> profesionalesParaGrupo(CitaDTO.CrearGrupoCitaDTO grupoDTO) {
+        List<Long> servicioIds = grupoDTO.getParticipantes().stream()
+                .map(CitaDTO.ParticipanteDTO::getServicioId)
+                .distinct()
+                .collect(Collectors.toList());
+        return new HashSet<>(lecturaPrimario.ejecutar(() ->
+                barberoServicioRepository.findProfesionalIdsDisponiblesByServicioIds(servicioIds)));
+    }
+
+    // Asigna a cada participante un profesional distinto a la misma hora resolviendo un
+    // emparejamiento sobre la disponibilidad en memoria. Se crean todas las citas o ninguna.
+    public CitaDTO.ResultadoGrupoDTO crearGrupo(CitaDTO.CrearGrupoCitaDTO grupoDTO) {
+        List<CitaDTO.ParticipanteDTO> participantes = grupoDTO.getParticipantes();
+        logger.info("Creando reserva de grupo para {} participantes a las {}", participantes.size(), grupoDTO.getFechaHora());
+        
+        // Un cliente no puede ocupar dos sillas a la vez
+        Set<Long> usuarioIds = new HashSet<>();
+        for (CitaDTO.ParticipanteDTO participante : participantes) {
+            if (!usuarioIds.add(participante.getUsuarioId())) {
+                throw new BadRequestException("El usuario " + participante.getUsuarioId() + " aparece más de una vez en el grupo");
+            }
+        }
+        
+        Map<Long, Usuario> usuarios = new HashMap<>();
+        usuarioRepository.findAllById(participantes.stream().map(CitaDTO.ParticipanteDTO::getUsuarioId).toList())
+                .forEach(usuario -> usuarios.put(usuario.getId(), usuario));
+        for (CitaDTO.ParticipanteDTO participante : participantes) {
+            if (!usuarios.containsKey(participante.getUsuarioId())) {
+                throw new ResourceNotFoundException("Usuario", "id", participante.getUsuarioId());
+            }
+        }
+        
+        // Ofertas por servicio, de la más barata a la más cara, leídas en una sola consulta
+        Map<Long, List<BarberoServicio>> ofertasPorServicio = new HashMap<>();
+        barberoServicioRepository.findDisponiblesByServicioIds(
+                        participantes.stream().map(CitaDTO.ParticipanteDTO::getServicioId).distinct().toList())
+                .stream()
+                .sorted(Comparator.comparing(BarberoServicio::getPrecio))
+                .forEach(bs -> ofertasPorServicio.computeIfAbsent(bs.getServicio().getId(), k -> new ArrayList<>()).add(bs));
+        
+        List<BarberoServicio> asignacion = asignarGrupo(participantes, ofertasPorServicio, grupoDTO.getFechaHora());
+        if (asignacion == null) {
+            List<LocalDateTime> alternativas = alternativasGrupo(participantes, ofertasPorServicio, grupoDTO.getFechaHora());
+            logger.info("Grupo sin asignación posible; {} horas alternativas", alternativas.size());
+            return CitaDTO.ResultadoGrupoDTO.builder()
+                    .citas(List.of())
+                    .alternativas(alternativas)
+                    .build();
+        }
+        
+        List<Cita> citas = new ArrayList<>();
+        for (int i = 0; i < participantes.size(); i++) {
+            BarberoServicio oferta = asignacion.get(i);
+            citas.add(Cita.builder()
+                    .usuario(usuarios.get(participantes.get(i).getUsuarioId()))
+                    .servicio(oferta.getServicio())
+                    .profesional(oferta.getProfesional())
+                    .fechaHora(grupoDTO.getFechaHora())
+                    .notas(grupoDTO.getNotas())
+                    .estado(EstadoCita.PENDIENTE)
+                    .precioFinal(oferta.getPrecio())
+                    .build());
+        }
+        
+        List<Cita> citasGuardadas = citaRepository.saveAll(citas);
+        reservaSlotService.reservar(citasGuardadas);
+        citasGuardadas.forEach(this::registrarCambio);
+        logger.info("Reserva de grupo creada con {} citas", citasGuardadas.size());
+        
+        return CitaDTO.ResultadoGrupoDTO.builder()
+                .citas(citasGuardadas.stream().map(this::convertirADTO).collect(Collectors.toList()))
+                .alternativas(List.of())
+                .build();
+    }
+
+    // Profesionales que pueden recibir citas del profesional indicado, incluido él mismo
+    public Set<Long> profesionalesParaReasignar(Long profesionalId) {
+        return lecturaPrimario.ejecutar(() -> {
+            List<Long> servicioIds = barberoServicioRepository.findByProfesionalId(profesionalId).stream()
+                    .map(bs -> bs.getServicio().getId())
+                    .collect(Collectors.toList());
+            Set<Long> profesionales = new HashSet<>();
+            if (!servicioIds.isEmpty()) {
+                profesionales.addAll(barberoServicioRepository.findProfesionalIdsDisponiblesByServicioIds(servicioIds));
+            }
+            profesionales.add(profesionalId);
+            return profesionales;
+        });
+    }
+
+    // Mueve cada cita futura del profesional a otro que ofrezca el mismo servicio y esté libre a esa
+    // misma hora. Las que no encuentran sustituto quedan marcadas para reprogramar.
+    public ReasignacionDTO reasignarCitasFuturas(Long profesionalId) {
+        logger.info("Reasignando citas futuras del profesional {}", profesionalId);
+        
+        List<Cita> citas = citaRepository.findCitasActivasDesdeByProfesional(profesionalId, LocalDateTime.now());
+        citas.sort(Comparator.comparing(Cita::getFechaHora));
+        
+        Map<Long, List<BarberoServicio>> ofertasPorServicio = new HashMap<>();
+        if (!citas.isEmpty()) {
+            barberoServicioRepository.findDisponiblesByServicioIds(
+                            citas.stream().map(c -> c.getServicio().getId()).distinct().toList())
+                    .stream()
+                    .filter(bs -> !bs.getProfesional().getId().equals(profesionalId))
+                    .sorted(Comparator.comparing(BarberoServicio::getPrecio))
+                    .forEach(bs -> ofertasPorServicio.computeIfAbsent(bs.getServicio().getId(), k -> new ArrayList<>()).add(bs));
+        }
+        
+        // Las citas movidas en este lote aún no están en el índice, se controlan aparte
+        Map<Long, IndiceIntervalos> asignadasEnLote = new HashMap<>();
+        List<Cita> movidas = new ArrayList<>();
+        List<ReasignacionDTO.DetalleDTO> reasignadas = new ArrayList<>();
+        List<ReasignacionDTO.DetalleDTO> sinReasignar = new ArrayList<>();
+        
+        for (Cita cita : citas) {
+            int duracionMinutos = cita.getServicio().getDuracionEnMinutos();
+            long inicio = IndiceIntervalos.aMinutoEpoch(cita.getFechaHora());
+            BarberoServicio destino = null;
+            for (BarberoServicio oferta : ofertasPorServicio.getOrDefault(cita.getServicio().getId(), List.of())) {
+                Long candidato = oferta.getProfesional().getId();
+                IndiceIntervalos lote = asignadasEnLote.get(candidato);
+                if (horarioLibre(candidato, cita.getFechaHora(), duracionMinutos)
+                        && (lote == null || !lote.hayConflicto(inicio, inicio + duracionMinutos, null))) {
+                    destino = oferta;
+                    break;
+                }
+            }
+            
+            if (destino == null) {
+                cita.setRequiereReprogramacion(true);
+                sinReasignar.add(ReasignacionDTO.DetalleDTO.builder()
+                        .citaId(cita.getId())
+                        .fechaHora(cita.getFechaHora())
+                        .nombreServicio(cita.getServicio().getNombre())
+                        .motivo("Ningún profesional que ofrece el servicio está libre a esa hora")
+                        .build());
+                continue;
+            }
+            
+            asignadasEnLote.computeIfAbsent(destino.getProfesional().getId(), k -> new IndiceIntervalos())
+                    .registrar(cita.getId(), inicio, inicio + duracionMinutos);
+            invalidarDisponibilidadTrasCommit(profesionalId, cita.getFechaHora());
+            cita.setProfesional(destino.getProfesional());
+            movidas.add(cita);
+            reasignadas.add(ReasignacionDTO.DetalleDTO.builder()
+                    .citaId(cita.getId())
+                    .fechaHora(cita.getFechaHora())
+                    .nombreServicio(cita.getServicio().getNombre())
+                    .profesionalNuevoId(destino.getProfesional().getId())
+                    .nombreProfesionalNuevo(destino.getProfesional().getUsuario().getNombre())
+                    .build());
+        }
+        
+        // Los UPDATE se envían agrupados según hibernate.jdbc.batch_size
+        citaRepository.saveAll(citas);
+        reservaSlotService.liberar(movidas.stream().map(Cita::getId).toList());
+        reservaSlotService.reservar(movidas);
+        movidas.forEach(this::registrarCambio);
+        logger.info("Reasignación del profesional {}: {} movidas, {} sin sustituto",
+                profesionalId, reasignadas.size(), sinReasignar.size());
+        
+        return ReasignacionDTO.builder()
+                .profesionalId(profesionalId)
+                .totalCitas(citas.size())
+                .reasignadas(reasignadas)
+                .sinReasignar(sinReasignar)
+                .build();
+    }
+
+    // Borrar un usuario, profesional o servicio elimina sus citas y solicitudes de espera en cascada
+    // (JPA y claves foráneas) sin pasar por este servicio. Se llaman antes del borrado para leer los ids
+    // y los quitan de la agenda en memoria cuando el borrado se confirma.
+    public void olvidarUsuarioTrasCommit(Long usuarioId) {
+        indiceAgenda.quitarTrasCommit(citaRepository.findIdsByUsuarioId(usuarioId));
+        listaEsperaService.quitarDelIndiceTrasCommit(listaEsperaRepository.findIdsByUsuarioId(usuarioId));
+        profesionalRepository.findByUsuarioId(usuarioId).ifPresent(profesional -> olvidarHorarioTrasCommit(profesional.getId()));
+    }
+
+    public void olvidarProfesionalTrasCommit(Long profesionalId) {
+        indiceAgenda.quitarTrasCommit(citaRepository.findIdsByProfesionalId(profesionalId));
+        listaEsperaService.quitarDelIndiceTrasCommit(listaEsperaRepository.findIdsByProfesionalId(profesionalId));
+        olvidarHorarioTrasCommit(profesionalId);
+    }
+
+    public void olvidarServicioTrasCommit(Long servicioId) {
+        indiceAgenda.quitarTrasCommit(citaRepository.findIdsByServicioId(servicioId));
+        listaEsperaService.quitarDelIndiceTrasCommit(listaEsperaRepository.findIdsByServicioId(servicioId));
+    }
+
+    // Sus tramos y excepciones se borran con él
+    private void olvidarHorarioTrasCommit(Long profesionalId) {
+        horariosCompilados.invalidarTrasCommit(profesionalId);
+        calendarioExcepciones.invalidarTrasCommit();
+    }
+
+    // Cancela todas las citas pendientes del día con un único UPDATE y cierra la agenda de ese día.
+    // Las franjas liberadas no se ofrecen a la lista de espera porque el profesional no atenderá.
+    public CierreDiaDTO cancelarDia(Long profesionalId, LocalDate fecha) {
+        logger.info("Cerrando el día {} del profesional {}", fecha, profesionalId);
+        
+        if (fecha.isBefore(LocalDate.now())) {
+            throw new BadRequestException("No se puede cerrar un día pasado");
+        }
+        
+        Profesional profesional = profesionalRepository.findById(profesionalId)
+                .orElseThrow(() -> new ResourceNotFoundException("Profesional", "id", profesionalId));
+        
+        LocalDateTime desde = fecha.atStartOfDay();
+        LocalDateTime hasta = fecha.plusDays(1).atStartOfDay();
+        
+        List<CierreDiaDTO.ClienteAfectadoDTO> afectados = citaRepository
+                .findClientesAfectadosByProfesionalAndRango(profesionalId, desde, hasta);
+        List<Long> citaIds = afectados.stream().map(CierreDiaDTO.ClienteAfectadoDTO::getCitaId).toList();
+        int canceladas = citaIds.isEmpty() ? 0 : citaRepository.cancelarPorIds(citaIds);
+        
+        reservaSlotService.liberar(citaIds);
+        indiceAgenda.quitarTrasCommit(citaIds);
+        invalidarDisponibilidadTrasCommit(profesionalId, desde);
+        
+        // Repetir el cierre solo cancela las citas nuevas; no acumula excepciones iguales
+        if (!excepcionHorarioRepository.existeCierreDiaCompleto(profesionalId, fecha)) {
+            excepcionHorarioRepository.save(ExcepcionHorario.builder()
+                    .profesional(profesional)
+                    .fechaInicio(fecha)
+                    .fechaFin(fecha)
+                    .tipo(ExcepcionHorario.TipoExcepcion.CERRADO)
+                    .motivo("Día cerrado con cancelación de citas")
+                    .build());
+            calendarioExcepciones.invalidarTrasCommit();
+        }
+        
+        logger.info("Día {} cerrado para el profesional {}: {} citas canceladas", fecha, profesionalId, canceladas);
+        return CierreDiaDTO.builder()
+                .profesionalId(profesionalId)
+                .fecha(fecha)
+                .citasCanceladas(canceladas)
+                .citaIds(citaIds)
+                .clientesAfectados(afectados)
+                .build();
+    }
+
     public CitaDTO actualizarEstado(Long id, CitaDTO.ActualizarEstadoDTO actualizarDTO) {
         logger.info("Actualizando estado de cita con ID: {}", id);
         
         Cita cita = citaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cita", "id", id));
         
+        boolean estabaActiva = cita.estaActiva();
         cita.setEstado(actualizarDTO.getEstado());
         
+        // Reactivar una cita exige que su horario siga libre
+        if (!estabaActiva && cita.estaActiva()) {
+            validarDisponibilidadHorario(cita.getProfesional().getId(), cita.getFechaHora(),
+                    cita.getServicio().getDuracionEnMinutos(), id, null);
+        }
+        
         if (actualizarDTO.getNotas() != null) {
             cita.setNotas(actualizarDTO.getNotas());
         }
@@ -144,6 +600,18 @@ public class CitaService {
         }
         
         Cita citaActualizada = citaRepository.save(cita);
+        
+        // Las franjas reservadas siguen al estado activo de la cita
+        if (estabaActiva && !citaActualizada.estaActiva()) {
+            reservaSlotService.liberar(id);
+        } else if (!estabaActiva && citaActualizada.estaActiva()) {
+            reservaSlotService.reservar(citaActualizada);
+        }
+        
+        registrarCambio(citaActualizada);
+        if (estabaActiva && citaActualizada.getEstado() == EstadoCita.CANCELADA) {
+            publicarCancelacion(citaActualizada);
+        }
         logger.info("Estado de cita actualizado a: {}", actualizarDTO.getEstado());
         
         return convertirADTO(citaActualizada);
@@ -160,8 +628,13 @@ public class CitaService {
         }
         
         if (citaDTO.getFechaHora() != null) {
-            validarDisponibilidadHorario(cita.getProfesional().getId(), citaDTO.getFechaHora(), id);
+            validarDisponibilidadHorario(cita.getProfesional().getId(), citaDTO.getFechaHora(),
+                    cita.getServicio().getDuracionEnMinutos(), id, null);
+            invalidarDisponibilidadTrasCommit(cita.getProfesional().getId(), cita.getFechaHora());
             cita.setFechaHora(citaDTO.getFechaHora());
+            cita.setRequiereReprogramacion(false);
+            reservaSlotService.liberar(id);
+            reservaSlotService.reservar(cita);
         }
         
         if (citaDTO.getNotas() != null) {
@@ -169,6 +642,7 @@ public class CitaService {
         }
         
         Cita citaActualizada = citaRepository.save(cita);
+        registrarCambio(citaActualizada);
         logger.info("Cita actualizada exitosamente");
         
         return convertirADTO(citaActualizada);
@@ -186,6 +660,9 @@ public class CitaService {
         
         cita.setEstado(EstadoCita.CANCELADA);
         citaRepository.save(cita);
+        reservaSlotService.liberar(id);
+        registrarCambio(cita);
+        publicarCancelacion(cita);
         
         logger.info("Cita cancelada exitosamente");
     }
@@ -193,34 +670,194 @@ public class CitaService {
     public void eliminar(Long id) {
         logger.info("Eliminando cita con ID: {}", id);
         
-        if (!citaRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Cita", "id", id);
-        }
+        Cita cita = citaRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Cita", "id", id));
         
-        citaRepository.deleteById(id);
+        reservaSlotService.liberar(id);
+        citaRepository.delete(cita);
+        indiceAgenda.quitarTrasCommit(id);
+        invalidarDisponibilidadTrasCommit(cita.getProfesional().getId(), cita.getFechaHora());
         logger.info("Cita eliminada exitosamente");
     }
 
-    private void validarDisponibilidadHorario(Long profesionalId, LocalDateTime fechaHora) {
-        validarDisponibilidadHorario(profesionalId, fechaHora, null);
+    // Conflicto si el intervalo [fechaHora, fechaHora + duración) sale de la jornada del profesional,
+    // se solapa con otra cita activa o con una franja retenida por otro cliente
+    private void validarDisponibilidadHorario(Long profesionalId, LocalDateTime fechaHora, int duracionMinutos,
+                                              Long citaIdExcluir, Long retencionIdExcluir) {
+        if (!horariosCompilados.dentroDeJornada(profesionalId, fechaHora, duracionMinutos)) {
+            throw new BadRequestException("El horario solicitado está fuera de la jornada del profesional");
+        }
+        if (indiceAgenda.hayConflicto(profesionalId, fechaHora, duracionMinutos, citaIdExcluir)) {
+            throw new BadRequestException("El profesional ya tiene una cita programada en ese horario");
+        }
+        if (retencionesAgenda.hayConflicto(profesionalId, fechaHora, duracionMinutos, retencionIdExcluir)) {
+            throw new ConflictException("La franja está retenida temporalmente por otro cliente");
+        }
+    }
+
+    // Prefiere un único profesional; si no hay ninguno y se permite relevo, prueba cada punto de corte
+    // entre dos profesionales distintos y se queda con el plan más barato
+    private List<BarberoServicio> planificarCombo(List<Long> servicioIds, LocalDateTime inicio, List<Long> primeros,
+                                                  Map<Long, Map<Long, BarberoServicio>> ofertas, boolean permitirRelevo) {
+        int total = servicioIds.size();
+        List<BarberoServicio> mejor = null;
+        for (Long primero : primeros) {
+            List<BarberoServicio> plan = partesCombo(ofertas.get(primero), servicioIds);
+            if (plan != null && horarioLibre(primero, inicio, duracionTotal(plan))) {
+                mejor = masBarato(mejor, plan);
+            }
+        }
+        if (mejor != null || !permitirRelevo) {
+            return mejor;
+        }
+
+        for (int corte = 1; corte < total; corte++) {
+            for (Long primero : primeros) {
+                List<BarberoServicio> tramoA = partesCombo(ofertas.get(primero), servicioIds.subList(0, corte));
+                if (tramoA == null || !horarioLibre(primero, inicio, duracionTotal(tramoA))) {
+                    continue;
+                }
+                LocalDateTime inicioRelevo = inicio.plusMinutes(duracionTotal(tramoA));
+                for (Long segundo : ofertas.keySet()) {
+                    if (segundo.equals(primero)) {
+                        continue;
+                    }
+                    List<BarberoServicio> tramoB = partesCombo(ofertas.get(segundo), servicioIds.subList(corte, total));
+                    if (tramoB != null && horarioLibre(segundo, inicioRelevo, duracionTotal(tramoB))) {
+                        List<BarberoServicio> plan = new ArrayList<>(tramoA);
+                        plan.addAll(tramoB);
+                        mejor = masBarato(mejor, plan);
+                    }
+                }
+            }
+        }
+        return mejor;
     }
 
-    private void validarDisponibilidadHorario(Long profesionalId, LocalDateTime fechaHora, Long citaIdExcluir) {
-        LocalDateTime inicio = fechaHora.minusHours(1);
-        LocalDateTime fin = fechaHora.plusHours(1);
-        
-        List<Cita> citasConflicto = citaRepository.findCitasActivasByProfesionalAndFecha(
-                profesionalId, inicio, fin);
+    // Evalúa sobre los mapas de franjas libres del día a todos los profesionales que ofrecen el servicio
+    private Long asignarProfesional(com.Neita.sistemacitasbarberia.entity.Servicio servicio, LocalDateTime fechaHora) {
+        int minutoInicio = fechaHora.toLocalTime().toSecondOfDay() / 60;
+        int minutoFin = minutoInicio + servicio.getDuracionEnMinutos();
+        if (minutoFin > MapaSlots.SLOTS_POR_DIA * MapaSlots.MINUTOS_POR_SLOT) {
+            throw new BadRequestException("El servicio no puede terminar al día siguiente");
+        }
+        int slotInicio = minutoInicio / MapaSlots.MINUTOS_POR_SLOT;
         
-        if (citaIdExcluir != null) {
-            citasConflicto = citasConflicto.stream()
-                    .filter(c -> !c.getId().equals(citaIdExcluir))
-                    .collect(Collectors.toList());
+        Map<Long, MapaSlots> libres = new HashMap<>();
+        for (BarberoServicio bs : barberoServicioRepository.findProfesionalesDisponiblesByServicio(servicio.getId())) {
+            Long candidato = bs.getProfesional().getId();
+            libres.put(candidato, disponibilidadService.mapaLibre(candidato, fechaHora.toLocalDate()));
         }
         
-        if (!citasConflicto.isEmpty()) {
-            throw new BadRequestException("El profesional ya tiene una cita programada en ese horario");
+        Long elegido = estrategiaAsignacion.elegir(libres, slotInicio, MapaSlots.slotFin(minutoFin) - slotInicio)
+                .orElseThrow(() -> new ConflictException("Ningún profesional está libre a esa hora para este servicio"));
+        logger.info("Profesional {} asignado automáticamente entre {} candidatos", elegido, libres.size());
+        return elegido;
+    }
+
+    // Oferta asignada a cada participante a la hora indicada, o null si no hay emparejamiento completo
+    private List<BarberoServicio> asignarGrupo(List<CitaDTO.ParticipanteDTO> participantes,
+                                               Map<Long, List<BarberoServicio>> ofertasPorServicio,
+                                               LocalDateTime fechaHora) {
+        List<List<Long>> candidatos = new ArrayList<>();
+        Map<Long, Map<Long, BarberoServicio>> ofertaElegible = new HashMap<>();
+        for (CitaDTO.ParticipanteDTO participante : participantes) {
+            List<Long> profesionales = new ArrayList<>();
+            for (BarberoServicio oferta : ofertasPorServicio.getOrDefault(participante.getServicioId(), List.of())) {
+                Long profesionalId = oferta.getProfesional().getId();
+                if ((participante.getProfesionalId() == null || participante.getProfesionalId().equals(profesionalId))
+                        && horarioLibre(profesionalId, fechaHora, oferta.getServicio().getDuracionEnMinutos())) {
+                    profesionales.add(profesionalId);
+                    ofertaElegible.computeIfAbsent(participante.getServicioId(), k -> new HashMap<>())
+                            .put(profesionalId, oferta);
+                }
+            }
+            if (profesionales.isEmpty()) {
+                return null;
+            }
+            candidatos.add(profesionales);
         }
+
+        List<Long> profesionalesAsignados = AsignacionGrupo.resolver(candidatos);
+        if (profesionalesAsignados == null) {
+            return null;
+        }
+        List<BarberoServicio> asignacion = new ArrayList<>();
+        for (int i = 0; i < participantes.size(); i++) {
+            asignacion.add(ofertaElegible.get(participantes.get(i).getServicioId()).get(profesionalesAsignados.get(i)));
+        }
+        return asignacion;
+    }
+
+    // Primeras horas posteriores a la pedida en las que el grupo completo cabe a la vez
+    private List<LocalDateTime> alternativasGrupo(List<CitaDTO.ParticipanteDTO> participantes,
+                                                  Map<Long, List<BarberoServicio>> ofertasPorServicio,
+                                                  LocalDateTime desde) {
+        List<LocalDateTime> alternativas = new ArrayList<>();
+        int paso = Math.max(MapaSlots.MINUTOS_POR_SLOT, pasoInicioMinutos);
+        LocalDateTime limite = desde.toLocalDate().plusDays(diasMaximoBusqueda + 1L).atStartOfDay();
+        LocalDateTime hora = desde.toLocalDate().atStartOfDay();
+        while (hora.isBefore(desde) || hora.equals(desde)) {
+            hora = hora.plusMinutes(paso);
+        }
+        for (; hora.isBefore(limite) && alternativas.size() < MAXIMO_ALTERNATIVAS_GRUPO; hora = hora.plusMinutes(paso)) {
+            if (asignarGrupo(participantes, ofertasPorServicio, hora) != null) {
+                alternativas.add(hora);
+            }
+        }
+        return alternativas;
+    }
+
+    private List<BarberoServicio> partesCombo(Map<Long, BarberoServicio> ofertasProfesional, List<Long> servicioIds) {
+        if (ofertasProfesional == null) {
+            return null;
+        }
+        List<BarberoServicio> partes = new ArrayList<>();
+        for (Long servicioId : servicioIds) {
+            BarberoServicio oferta = ofertasProfesional.get(servicioId);
+            if (oferta == null) {
+                return null;
+            }
+            partes.add(oferta);
+        }
+        return partes;
+    }
+
+    private int duracionTotal(List<BarberoServicio> partes) {
+        return partes.stream().mapToInt(bs -> bs.getServicio().getDuracionEnMinutos()).sum();
+    }
+
+    private List<BarberoServicio> masBarato(List<BarberoServicio> actual, List<BarberoServicio> candidato) {
+        if (actual == null) {
+            return candidato;
+        }
+        double precioActual = actual.stream().mapToDouble(BarberoServicio::getPrecio).sum();
+        double precioCandidato = candidato.stream().mapToDouble(BarberoServicio::getPrecio).sum();
+        return precioCandidato < precioActual ? candidato : actual;
+    }
+
+    private boolean horarioLibre(Long profesionalId, LocalDateTime fechaHora, int duracionMinutos) {
+        return horariosCompilados.dentroDeJornada(profesionalId, fechaHora, duracionMinutos)
+                && !indiceAgenda.hayConflicto(profesionalId, fechaHora, duracionMinutos, null)
+                && !retencionesAgenda.hayConflicto(profesionalId, fechaHora, duracionMinutos, null);
+    }
+
+    // Refleja la cita en el índice y después invalida la disponibilidad cacheada de su día,
+    // ambos tras el commit y en ese orden
+    private void registrarCambio(Cita cita) {
+        indiceAgenda.registrarTrasCommit(cita);
+        invalidarDisponibilidadTrasCommit(cita.getProfesional().getId(), cita.getFechaHora());
+    }
+
+    private void invalidarDisponibilidadTrasCommit(Long profesionalId, LocalDateTime fechaHora) {
+        LocalDate fecha = fechaHora.toLocalDate();
+        TrasCommit.ejecutar(() -> cacheDisponibilidad.invalidarDia(profesionalId, fecha));
+    }
+
+    // Se publica después de actualizar el índice para que los oyentes vean el hueco ya libre
+    private void publicarCancelacion(Cita cita) {
+        eventPublisher.publishEvent(new CitaCanceladaEvento(cita.getId(), cita.getProfesional().getId(),
+                cita.getFechaHora(), cita.getServicio().getDuracionEnMinutos()));
     }
 
     private CitaDTO convertirADTO(Cita cita) {
@@ -0,0 +1,189 @@
+package com.Neita.sistemacitasbarberia.service;
+
+import com.Neita.sistemacitasbarberia.agenda.CacheDisponibilidad;
+import com.Neita.sistemacitasbarberia.agenda.HorariosCompilados;
+import com.Neita.sistemacitasbarberia.agenda.IndiceAgenda;
+import com.Neita.sistemacitasbarberia.agenda.IndiceIntervalos;
+import com.Neita.sistemacitasbarberia.agenda.MapaSlots;
+import com.Neita.sistemacitasbarberia.agenda.RetencionesAgenda;
+import com.Neita.sistemacitasbarberia.dto.DisponibilidadDTO;
+import com.Neita.sistemacitasbarberia.entity.BarberoServicio;
+import com.Neita.sistemacitasbarberia.entity.Profesional;
+import com.Neita.sistemacitasbarberia.exception.BadRequestException;
+import com.Neita.sistemacitasbarberia.exception.ResourceNotFoundException;
+import com.Neita.sistemacitasbarberia.repository.BarberoServicioRepository;
+import com.Neita.sistemacitasbarberia.repository.ProfesionalRepository;
+import com.Neita.sistemacitasbarberia.repository.ServicioRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DisponibilidadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DisponibilidadService.class);
+
+    private static final int MINUTOS_POR_DIA = 24 * 60;
+    private static final int LIMITE_MAXIMO_OPCIONES = 20;
+
+    private final ProfesionalRepository profesionalRepository;
+    private final BarberoServicioRepository barberoServicioRepository;
+    private final ServicioRepository servicioRepository;
+    private final IndiceAgenda indiceAgenda;
+    private final RetencionesAgenda retencionesAgenda;
+    private final HorariosCompilados horariosCompilados;
+    private final CacheDisponibilidad cacheDisponibilidad;
+    private final ExecutorService agendaExecutor;
+
+    @Value("${agenda.paso-inicio-minutos:15}")
+    private int pasoInicioMinutos;
+
+    @Value("${agenda.busqueda.dias-maximo:14}")
+    private int diasMaximoBusqueda;
+
+    public DisponibilidadDTO obtenerDisponibilidad(Long profesionalId, LocalDate fecha, Long servicioId) {
+        logger.debug("Calculando disponibilidad del profesional {} para el {} (servicio {})",
+                profesionalId, fecha, servicioId);
+
+        Profesional profesional = profesionalRepository.findById(profesionalId)
+                .orElseThrow(() -> new ResourceNotFoundException("Profesional", "id", profesionalId));
+
+        if (!profesional.getActivo()) {
+            throw new BadRequestException("El profesional no está activo");
+        }
+
+        BarberoServicio barberoServicio = barberoServicioRepository
+                .findByProfesionalIdAndServicioId(profesionalId, servicioId)
+                .orElseThrow(() -> new BadRequestException("El profesional no ofrece este servicio"));
+
+        int duracionMinutos = barberoServicio.getServicio().getDuracionEnMinutos();
+
+        List<LocalTime> horarios = List.of();
+        if (barberoServicio.getDisponible() && !fecha.isBefore(LocalDate.now())) {
+            horarios = iniciosLibres(mapaLibre(profesionalId, fecha), duracionMinutos).stream()
+                    .map(MapaSlots::horaDe)
+                    .collect(Collectors.toList());
+        }
+
+        return DisponibilidadDTO.builder()
+                .profesionalId(profesionalId)
+                .servicioId(servicioId)
+                .fecha(fecha)
+                .duracionMinutos(duracionMinutos)
+                .horarios(horarios)
+                .build();
+    }
+
+    // Primeras opciones libres entre todos los profesionales que ofrecen el servicio,
+    // calculando la agenda de cada profesional en paralelo
+    public List<DisponibilidadDTO.OpcionDisponibleDTO> buscarPrimerosDisponibles(Long servicioId,
+                                                                               LocalDateTime desde,
+                                                                               int limite) {
+        logger.debug("Buscando primer profesional disponible para servicio {} desde {}", servicioId, desde);
+
+        com.Neita.sistemacitasbarberia.entity.Servicio servicio = servicioRepository.findById(servicioId)
+                .orElseThrow(() -> new ResourceNotFoundException("Servicio", "id", servicioId));
+
+        int duracionMinutos = servicio.getDuracionEnMinutos();
+        int cantidad = Math.max(1, Math.min(limite, LIMITE_MAXIMO_OPCIONES));
+        LocalDateTime inicioBusqueda = desde != null && desde.isAfter(LocalDateTime.now()) ? desde : LocalDateTime.now();
+
+        List<DisponibilidadDTO.OpcionDisponibleDTO> candidatos = barberoServicioRepository
+                .findProfesionalesDisponiblesByServicio(servicioId).stream()
+                .map(bs -> DisponibilidadDTO.OpcionDisponibleDTO.builder()
+                        .profesionalId(bs.getProfesional().getId())
+                        .nombreProfesional(bs.getProfesional().getUsuario().getNombre())
+                        .servicioId(servicioId)
+                        .precio(bs.getPrecio())
+                        .build())
+                .collect(Collectors.toList());
+
+        List<CompletableFuture<List<DisponibilidadDTO.OpcionDisponibleDTO>>> tareas = candidatos.stream()
+                .map(candidato -> CompletableFuture.supplyAsync(
+                        () -> primerasOpciones(candidato, inicioBusqueda, duracionMinutos, cantidad), agendaExecutor))
+                .collect(Collectors.toList());
+
+        return tareas.stream()
+                .map(CompletableFuture::join)
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(DisponibilidadDTO.OpcionDisponibleDTO::getFechaHora)
+                        .thenComparing(DisponibilidadDTO.OpcionDisponibleDTO::getPrecio))
+                .limit(cantidad)
+                .collect(Collectors.toList());
+    }
+
+    // Franjas libres del día: horario laboral menos citas activas, retenciones y franjas ya pasadas.
+    // Las franjas pasadas se recortan fuera de la caché porque cambian con la hora, no con los datos.
+    public MapaSlots mapaLibre(Long profesionalId, LocalDate fecha) {
+        MapaSlots libre = cacheDisponibilidad.obtener(profesionalId, fecha, () -> calcularMapaLibre(profesionalId, fecha));
+
+        LocalDateTime ahora = LocalDateTime.now();
+        if (fecha.equals(ahora.toLocalDate())) {
+            libre.limpiar(0, MapaSlots.slotFin(ahora.toLocalTime().toSecondOfDay() / 60 + 1));
+        }
+        return libre;
+    }
+
+    private MapaSlots calcularMapaLibre(Long profesionalId, LocalDate fecha) {
+        MapaSlots libre = horariosCompilados.mapaLaboral(profesionalId, fecha);
+
+        long inicioDia = IndiceIntervalos.aMinutoEpoch(fecha.atStartOfDay());
+        long finDia = inicioDia + MINUTOS_POR_DIA;
+        limpiarOcupados(libre, inicioDia, indiceAgenda.obtener(profesionalId).solapados(inicioDia, finDia));
+        limpiarOcupados(libre, inicioDia, retencionesAgenda.solapadas(profesionalId, inicioDia, finDia));
+        return libre;
+    }
+
+    public List<Integer> iniciosLibres(MapaSlots libre, int duracionMinutos) {
+        int paso = Math.max(1, pasoInicioMinutos / MapaSlots.MINUTOS_POR_SLOT);
+        return libre.iniciosLibres(MapaSlots.slotsPara(duracionMinutos), paso, 0);
+    }
+
+    private List<DisponibilidadDTO.OpcionDisponibleDTO> primerasOpciones(
+            DisponibilidadDTO.OpcionDisponibleDTO candidato, LocalDateTime desde, int duracionMinutos, int cantidad) {
+        List<DisponibilidadDTO.OpcionDisponibleDTO> opciones = new ArrayList<>();
+        LocalDate fecha = desde.toLocalDate();
+        for (int dia = 0; dia <= diasMaximoBusqueda && opciones.size() < cantidad; dia++, fecha = fecha.plusDays(1)) {
+            for (Integer slot : iniciosLibres(mapaLibre(candidato.getProfesionalId(), fecha), duracionMinutos)) {
+                LocalDateTime fechaHora = fecha.atTime(MapaSlots.horaDe(slot));
+                if (fechaHora.isBefore(desde)) {
+                    continue;
+                }
+                opciones.add(DisponibilidadDTO.OpcionDisponibleDTO.builder()
+                        .profesionalId(candidato.getProfesionalId())
+                        .nombreProfesional(candidato.getNombreProfesional())
+                        .servicioId(candidato.getServicioId())
+                        .precio(candidato.getPrecio())
+                        .fechaHora(fechaHora)
+                        .build());
+                if (opciones.size() == cantidad) {
+                    break;
+                }
+            }
+        }
+        return opciones;
+    }
+
+    private void limpiarOcupados(MapaSlots libre, long inicioDia, List<IndiceIntervalos.Intervalo> ocupados) {
+        for (IndiceIntervalos.Intervalo ocupado : ocupados) {
+            int desde = (int) Math.max(0, ocupado.inicio() - inicioDia) / MapaSlots.MINUTOS_POR_SLOT;
+            int hasta = MapaSlots.slotFin((int) Math.min(MINUTOS_POR_DIA, ocupado.fin() - inicioDia));
+            libre.limpiar(desde, hasta);
+        }
+    }
+}
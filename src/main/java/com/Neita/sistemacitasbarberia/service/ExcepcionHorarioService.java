@@ -0,0 +1,141 @@
+package com.Neita.sistemacitasbarberia.service;
+
+import com.Neita.sistemacitasbarberia.agenda.CalendarioExcepciones;
+import com.Neita.sistemacitasbarberia.dto.ExcepcionHorarioDTO;
+import com.Neita.sistemacitasbarberia.entity.ExcepcionHorario;
+import com.Neita.sistemacitasbarberia.entity.ExcepcionHorario.TipoExcepcion;
+import com.Neita.sistemacitasbarberia.entity.Profesional;
+import com.Neita.sistemacitasbarberia.exception.BadRequestException;
+import com.Neita.sistemacitasbarberia.exception.ResourceNotFoundException;
+import com.Neita.sistemacitasbarberia.repository.CitaRepository;
+import com.Neita.sistemacitasbarberia.repository.ExcepcionHorarioRepository;
+import com.Neita.sistemacitasbarberia.repository.ProfesionalRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ExcepcionHorarioService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExcepcionHorarioService.class);
+
+    private final ExcepcionHorarioRepository excepcionHorarioRepository;
+    private final ProfesionalRepository profesionalRepository;
+    private final CitaRepository citaRepository;
+    private final CalendarioExcepciones calendarioExcepciones;
+
+    @Transactional(readOnly = true)
+    public List<ExcepcionHorarioDTO> obtenerVigentes() {
+        return excepcionHorarioRepository.findVigentesDesde(LocalDate.now()).stream()
+                .map(excepcion -> convertirADTO(excepcion, null))
+                .collect(Collectors.toList());
+    }
+
+    public ExcepcionHorarioDTO crear(ExcepcionHorarioDTO excepcionDTO) {
+        logger.info("Registrando excepción {} del {} al {}", excepcionDTO.getTipo(),
+                excepcionDTO.getFechaInicio(), excepcionDTO.getFechaFin());
+
+        validar(excepcionDTO);
+
+        Profesional profesional = null;
+        if (excepcionDTO.getProfesionalId() != null) {
+            profesional = profesionalRepository.findById(excepcionDTO.getProfesionalId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Profesional", "id", excepcionDTO.getProfesionalId()));
+        }
+
+        ExcepcionHorario excepcion = ExcepcionHorario.builder()
+                .profesional(profesional)
+                .fechaInicio(excepcionDTO.getFechaInicio())
+                .fechaFin(excepcionDTO.getFechaFin())
+                .tipo(excepcionDTO.getTipo())
+                .horaInicio(excepcionDTO.getHoraInicio())
+                .horaFin(excepcionDTO.getHoraFin())
+                .motivo(excepcionDTO.getMotivo())
+                .build();
+
+        ExcepcionHorario guardada = excepcionHorarioRepository.save(excepcion);
+        int citasAfectadas = marcarCitasAfectadas(guardada);
+        calendarioExcepciones.invalidarTrasCommit();
+
+        logger.info("Excepción creada con ID: {}, {} citas marcadas para reprogramar", guardada.getId(), citasAfectadas);
+        return convertirADTO(guardada, citasAfectadas);
+    }
+
+    public void eliminar(Long id) {
+        logger.info("Eliminando excepción de horario con ID: {}", id);
+
+        if (!excepcionHorarioRepository.existsById(id)) {
+            throw new ResourceNotFoundException("ExcepcionHorario", "id", id);
+        }
+
+        excepcionHorarioRepository.deleteById(id);
+        calendarioExcepciones.invalidarTrasCommit();
+    }
+
+    // Un único UPDATE por excepción marca todas las citas que quedan fuera de la jornada
+    private int marcarCitasAfectadas(ExcepcionHorario excepcion) {
+        if (excepcion.getTipo() == TipoExcepcion.TURNO_EXTRA) {
+            return 0;
+        }
+        Long profesionalId = excepcion.getProfesional() != null ? excepcion.getProfesional().getId() : null;
+        LocalDateTime desde = excepcion.getFechaInicio().atStartOfDay();
+        LocalDateTime hasta = excepcion.getFechaFin().plusDays(1).atStartOfDay();
+        LocalTime horaInicio = excepcion.getHoraInicio();
+        LocalTime horaFin = excepcion.getHoraFin();
+
+        if (excepcion.getTipo() == TipoExcepcion.HORARIO_REDUCIDO) {
+            return profesionalId != null
+                    ? citaRepository.marcarParaReprogramarFueraDe(profesionalId, desde, hasta, horaInicio, horaFin)
+                    : citaRepository.marcarParaReprogramarFueraDeEnBarberia(desde, hasta, horaInicio, horaFin);
+        }
+        if (excepcion.esDiaCompleto()) {
+            return profesionalId != null
+                    ? citaRepository.marcarParaReprogramarEnRango(profesionalId, desde, hasta)
+                    : citaRepository.marcarParaReprogramarEnRangoEnBarberia(desde, hasta);
+        }
+        return profesionalId != null
+                ? citaRepository.marcarParaReprogramarSolapadas(profesionalId, desde, hasta, horaInicio, horaFin)
+                : citaRepository.marcarParaReprogramarSolapadasEnBarberia(desde, hasta, horaInicio, horaFin);
+    }
+
+    private void validar(ExcepcionHorarioDTO excepcionDTO) {
+        if (excepcionDTO.getFechaFin().isBefore(excepcionDTO.getFechaInicio())) {
+            throw new BadRequestException("La fecha de fin no puede ser anterior a la de inicio");
+        }
+
+        boolean sinHoras = excepcionDTO.getHoraInicio() == null && excepcionDTO.getHoraFin() == null;
+        if (sinHoras && excepcionDTO.getTipo() == TipoExcepcion.CERRADO) {
+            return;
+        }
+        if (excepcionDTO.getHoraInicio() == null || excepcionDTO.getHoraFin() == null) {
+            throw new BadRequestException("Las horas de inicio y fin son obligatorias para este tipo de excepción");
+        }
+        if (!excepcionDTO.getHoraFin().isAfter(excepcionDTO.getHoraInicio())) {
+            throw new BadRequestException("La hora de fin debe ser posterior a la de inicio");
+        }
+    }
+
+    private ExcepcionHorarioDTO convertirADTO(ExcepcionHorario excepcion, Integer citasAfectadas) {
+        return ExcepcionHorarioDTO.builder()
+                .id(excepcion.getId())
+                .profesionalId(excepcion.getProfesional() != null ? excepcion.getProfesional().getId() : null)
+                .fechaInicio(excepcion.getFechaInicio())
+                .fechaFin(excepcion.getFechaFin())
+                .tipo(excepcion.getTipo())
+                .horaInicio(excepcion.getHoraInicio())
+                .horaFin(excepcion.getHoraFin())
+                .motivo(excepcion.getMotivo())
+                .citasAfectadas(citasAfectadas)
+                .build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.Neita.sistemacitasbarberia.service;
+
+import com.Neita.sistemacitasbarberia.dto.CitaDTO;
+import com.Neita.sistemacitasbarberia.exception.BadRequestException;
+import com.Neita.sistemacitasbarberia.repository.CitaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+// Exportación contable de citas escrita fila a fila: la consulta se recorre como flujo y cada
+// fila se serializa y se descarta, por lo que la memoria no depende del número de citas.
+@Service
+@RequiredArgsConstructor
+public class ExportacionCitaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportacionCitaService.class);
+
+    private static final int FILAS_POR_VOLCADO = 500;
+    private static final String CABECERA_CSV =
+            "id,fechaHora,estado,precioFinal,servicio,cliente,emailCliente,profesional,fechaCreacion,fechaCompletada";
+
+    public enum Formato {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String tipoContenido;
+        private final String extension;
+
+        Formato(String tipoContenido, String extension) {
+            this.tipoContenido = tipoContenido;
+            this.extension = extension;
+        }
+
+        public String getTipoContenido() {
+            return tipoContenido;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Formato desde(String valor) {
+            try {
+                return Formato.valueOf(valor.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new BadRequestException("Formato de exportación no soportado: " + valor + " (use ndjson o csv)");
+            }
+        }
+    }
+
+    private final CitaRepository citaRepository;
+    private final ObjectMapper objectMapper;
+
+    // Se valida antes de empezar a escribir: una vez enviadas las cabeceras ya no cabe un 400
+    public void validarRango(LocalDate desde, LocalDate hasta) {
+        if (desde != null && hasta != null && desde.isAfter(hasta)) {
+            throw new BadRequestException("La fecha inicial debe ser anterior o igual a la final");
+        }
+    }
+
+    // Se invoca desde el hilo que escribe la respuesta, así la transacción abarca todo el recorrido
+    @Transactional(readOnly = true)
+    public long exportar(Formato formato, LocalDate desde, LocalDate hasta, OutputStream salida) throws IOException {
+        LocalDateTime inicio = desde != null ? desde.atStartOfDay() : LocalDateTime.of(1970, 1, 1, 0, 0);
+        LocalDateTime fin = hasta != null ? hasta.plusDays(1).atStartOfDay() : LocalDateTime.of(9999, 12, 31, 0, 0);
+
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        long filas = 0;
+        try (Stream<CitaDTO.CitaExportacionDTO> citas = citaRepository.streamParaExportacion(inicio, fin)) {
+            if (formato == Formato.CSV) {
+                escritor.write(CABECERA_CSV);
+                escritor.write('\n');
+            }
+            Iterator<CitaDTO.CitaExportacionDTO> iterador = citas.iterator();
+            while (iterador.hasNext()) {
+                CitaDTO.CitaExportacionDTO cita = iterador.next();
+                escritor.write(formato == Formato.CSV ? filaCsv(cita) : objectMapper.writeValueAsString(cita));
+                escritor.write('\n');
+                // Volcados periódicos para que el cliente reciba datos mientras la consulta avanza
+                if (++filas % FILAS_POR_VOLCADO == 0) {
+                    escritor.flush();
+                }
+            }
+        }
+        escritor.flush();
+        logger.info("Exportación de citas en {} completada con {} filas", formato, filas);
+        return filas;
+    }
+
+    private String filaCsv(CitaDTO.CitaExportacionDTO cita) {
+        return String.join(",",
+                String.valueOf(cita.getId()),
+                texto(cita.getFechaHora()),
+                texto(cita.getEstado()),
+                texto(cita.getPrecioFinal()),
+                csv(cita.getNombreServicio()),
+                csv(cita.getNombreUsuario()),
+                csv(cita.getEmailUsuario()),
+                csv(cita.getNombreProfesional()),
+                texto(cita.getFechaCreacion()),
+                texto(cita.getFechaCompletada()));
+    }
+
+    private String texto(Object valor) {
+        return valor == null ? "" : valor.toString();
+    }
+
+    // Escapado RFC 4180: comillas dobles cuando el valor contiene separadores, comillas o saltos
+    private String csv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.contains(",") || valor.contains("\"") || valor.contains("\n") || valor.contains("\r")) {
+            return "\"" + valor.replace("\"", "\"\"") + "\"";
+        }
+        return valor;
+    }
+}
@@ -1,6 +1,7 @@
 package com.Neita.sistemacitasbarberia.service;
 
 import com.Neita.sistemacitasbarberia.dto.GaleriaDTO;
+import com.Neita.sistemacitasbarberia.dto.PaginaDTO;
 import com.Neita.sistemacitasbarberia.entity.Galeria;
 import com.Neita.sistemacitasbarberia.entity.Profesional;
 import com.Neita.sistemacitasbarberia.exception.ResourceNotFoundException;
@@ -52,11 +53,20 @@ public class GaleriaService {
     }
 
     @Transactional(readOnly = true)
-    public List<GaleriaDTO> obtenerTodasVisibles() {
-        logger.debug("Obteniendo todas las entradas visibles de galería");
-        return galeriaRepository.findAllVisibles().stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public PaginaDTO<GaleriaDTO> obtenerTodasVisibles(String cursor, Integer tamano) {
+        logger.debug("Obteniendo página de entradas visibles de galería desde cursor: {}", cursor);
+        int limite = Paginacion.tamano(tamano);
+        Paginacion.Cursor desde = Paginacion.cursorDescendente(cursor);
+        List<Galeria> entradas = galeriaRepository.findPaginaVisiblesAnteriorA(
+                desde.fecha(), desde.id(), Paginacion.limite(limite));
+        return Paginacion.pagina(entradas, limite, this::convertirADTO,
+                g -> Paginacion.codificar(g.getFechaSubida(), g.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<GaleriaDTO.GaleriaSimpleDTO> obtenerTodasVisiblesSimples() {
+        logger.debug("Obteniendo listado simple de entradas visibles de galería");
+        return galeriaRepository.findSimpleVisibles();
     }
 
     public GaleriaDTO crear(GaleriaDTO.CrearGaleriaDTO crearDTO) {
@@ -0,0 +1,84 @@
+package com.Neita.sistemacitasbarberia.service;
+
+import com.Neita.sistemacitasbarberia.agenda.HorariosCompilados;
+import com.Neita.sistemacitasbarberia.dto.HorarioProfesionalDTO;
+import com.Neita.sistemacitasbarberia.entity.HorarioProfesional;
+import com.Neita.sistemacitasbarberia.entity.HorarioProfesional.TipoTramo;
+import com.Neita.sistemacitasbarberia.entity.Profesional;
+import com.Neita.sistemacitasbarberia.exception.BadRequestException;
+import com.Neita.sistemacitasbarberia.exception.ResourceNotFoundException;
+import com.Neita.sistemacitasbarberia.repository.HorarioProfesionalRepository;
+import com.Neita.sistemacitasbarberia.repository.ProfesionalRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class HorarioService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HorarioService.class);
+
+    private final HorarioProfesionalRepository horarioProfesionalRepository;
+    private final ProfesionalRepository profesionalRepository;
+    private final HorariosCompilados horariosCompilados;
+
+    @Transactional(readOnly = true)
+    public List<HorarioProfesionalDTO> obtenerPorProfesional(Long profesionalId) {
+        if (!profesionalRepository.existsById(profesionalId)) {
+            throw new ResourceNotFoundException("Profesional", "id", profesionalId);
+        }
+        return horarioProfesionalRepository.findByProfesionalIdOrderByDiaSemanaAscHoraInicioAsc(profesionalId).stream()
+                .map(this::convertirADTO)
+                .collect(Collectors.toList());
+    }
+
+    // Sustituye el horario semanal completo del profesional
+    public List<HorarioProfesionalDTO> reemplazar(Long profesionalId, List<HorarioProfesionalDTO> tramosDTO) {
+        logger.info("Actualizando horario semanal del profesional {} con {} tramos", profesionalId, tramosDTO.size());
+
+        Profesional profesional = profesionalRepository.findById(profesionalId)
+                .orElseThrow(() -> new ResourceNotFoundException("Profesional", "id", profesionalId));
+
+        List<HorarioProfesional> tramos = tramosDTO.stream()
+                .map(dto -> {
+                    boolean hastaFinDelDia = dto.getHoraFin().equals(LocalTime.MIDNIGHT);
+                    if (!hastaFinDelDia && !dto.getHoraFin().isAfter(dto.getHoraInicio())) {
+                        throw new BadRequestException("La hora de fin debe ser posterior a la de inicio");
+                    }
+                    return HorarioProfesional.builder()
+                            .profesional(profesional)
+                            .diaSemana(dto.getDiaSemana())
+                            .horaInicio(dto.getHoraInicio())
+                            .horaFin(dto.getHoraFin())
+                            .tipo(dto.getTipo() != null ? dto.getTipo() : TipoTramo.TURNO)
+                            .build();
+                })
+                .collect(Collectors.toList());
+
+        horarioProfesionalRepository.eliminarPorProfesional(profesionalId);
+        List<HorarioProfesional> guardados = horarioProfesionalRepository.saveAll(tramos);
+        horariosCompilados.invalidarTrasCommit(profesionalId);
+
+        return guardados.stream()
+                .map(this::convertirADTO)
+                .collect(Collectors.toList());
+    }
+
+    private HorarioProfesionalDTO convertirADTO(HorarioProfesional tramo) {
+        return HorarioProfesionalDTO.builder()
+                .id(tramo.getId())
+                .diaSemana(tramo.getDiaSemana())
+                .horaInicio(tramo.getHoraInicio())
+                .horaFin(tramo.getHoraFin())
+                .tipo(tramo.getTipo())
+                .build();
+    }
+}
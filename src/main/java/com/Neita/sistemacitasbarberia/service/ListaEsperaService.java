@@ -0,0 +1,250 @@
+package com.Neita.sistemacitasbarberia.service;
+
+import com.Neita.sistemacitasbarberia.agenda.CitaCanceladaEvento;
+import com.Neita.sistemacitasbarberia.agenda.IndiceAgenda;
+import com.Neita.sistemacitasbarberia.agenda.IndiceListaEspera;
+import com.Neita.sistemacitasbarberia.agenda.RetencionLiberadaEvento;
+import com.Neita.sistemacitasbarberia.agenda.RetencionesAgenda;
+import com.Neita.sistemacitasbarberia.agenda.TrasCommit;
+import com.Neita.sistemacitasbarberia.dto.ListaEsperaDTO;
+import com.Neita.sistemacitasbarberia.entity.BarberoServicio;
+import com.Neita.sistemacitasbarberia.entity.ListaEspera;
+import com.Neita.sistemacitasbarberia.entity.ListaEspera.EstadoListaEspera;
+import com.Neita.sistemacitasbarberia.entity.Usuario;
+import com.Neita.sistemacitasbarberia.exception.BadRequestException;
+import com.Neita.sistemacitasbarberia.exception.ResourceNotFoundException;
+import com.Neita.sistemacitasbarberia.repository.BarberoServicioRepository;
+import com.Neita.sistemacitasbarberia.repository.ListaEsperaRepository;
+import com.Neita.sistemacitasbarberia.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ListaEsperaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListaEsperaService.class);
+
+    private final ListaEsperaRepository listaEsperaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final BarberoServicioRepository barberoServicioRepository;
+    private final IndiceListaEspera indiceListaEspera;
+    private final IndiceAgenda indiceAgenda;
+    private final RetencionesAgenda retencionesAgenda;
+
+    @Value("${agenda.lista-espera.minutos-oferta:10}")
+    private int minutosOferta;
+
+    // La tabla solo se recorre al arrancar; después el índice se mantiene con cada alta y baja
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarIndice() {
+        LocalDateTime ahora = LocalDateTime.now();
+        int reactivadas = listaEsperaRepository.reactivarOfertasPendientes();
+        listaEsperaRepository.caducarVencidas(ahora);
+        List<ListaEspera> vigentes = listaEsperaRepository.findVigentesByEstado(EstadoListaEspera.ACTIVA, ahora);
+        vigentes.forEach(indiceListaEspera::registrarTrasCommit);
+        logger.info("Lista de espera cargada en memoria con {} solicitudes ({} ofertas sin retención reactivadas)",
+                vigentes.size(), reactivadas);
+    }
+
+    // Las ventanas ya terminadas salen de la tabla activa y del índice en memoria
+    @Scheduled(fixedDelayString = "${agenda.lista-espera.purga-ms:600000}",
+               initialDelayString = "${agenda.lista-espera.purga-ms:600000}")
+    public void caducarVencidas() {
+        LocalDateTime ahora = LocalDateTime.now();
+        int caducadas = listaEsperaRepository.caducarVencidas(ahora);
+        int purgadas = indiceListaEspera.purgarVencidas(ahora);
+        if (caducadas > 0 || purgadas > 0) {
+            logger.debug("Lista de espera: {} solicitudes caducadas, {} quitadas del índice", caducadas, purgadas);
+        }
+    }
+
+    public ListaEsperaDTO crear(ListaEsperaDTO.CrearListaEsperaDTO crearDTO) {
+        logger.info("Apuntando usuario {} a la lista de espera del profesional {}",
+                crearDTO.getUsuarioId(), crearDTO.getProfesionalId());
+
+        if (!crearDTO.getVentanaFin().isAfter(crearDTO.getVentanaInicio())) {
+            throw new BadRequestException("El fin de la ventana debe ser posterior a su inicio");
+        }
+
+        Usuario usuario = usuarioRepository.findById(crearDTO.getUsuarioId())
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario", "id", crearDTO.getUsuarioId()));
+
+        BarberoServicio barberoServicio = barberoServicioRepository
+                .findByProfesionalIdAndServicioId(crearDTO.getProfesionalId(), crearDTO.getServicioId())
+                .orElseThrow(() -> new BadRequestException("El profesional no ofrece este servicio"));
+
+        if (!barberoServicio.getDisponible()) {
+            throw new BadRequestException("El servicio no está disponible con este profesional");
+        }
+
+        ListaEspera solicitud = ListaEspera.builder()
+                .usuario(usuario)
+                .profesional(barberoServicio.getProfesional())
+                .servicio(barberoServicio.getServicio())
+                .ventanaInicio(crearDTO.getVentanaInicio())
+                .ventanaFin(crearDTO.getVentanaFin())
+                .estado(EstadoListaEspera.ACTIVA)
+                .build();
+
+        ListaEspera guardada = listaEsperaRepository.save(solicitud);
+        indiceListaEspera.registrarTrasCommit(guardada);
+        logger.info("Solicitud de lista de espera creada con ID: {}", guardada.getId());
+
+        return convertirADTO(guardada);
+    }
+
+    @Transactional(readOnly = true)
+    public ListaEsperaDTO obtenerPorId(Long id) {
+        ListaEspera solicitud = listaEsperaRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("ListaEspera", "id", id));
+        return convertirADTO(solicitud);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ListaEsperaDTO> obtenerPorUsuario(Long usuarioId) {
+        return listaEsperaRepository.findByUsuarioIdOrderByFechaCreacionDesc(usuarioId).stream()
+                .map(this::convertirADTO)
+                .collect(Collectors.toList());
+    }
+
+    public void cancelar(Long id) {
+        logger.info("Cancelando solicitud de lista de espera con ID: {}", id);
+
+        ListaEspera solicitud = listaEsperaRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("ListaEspera", "id", id));
+
+        if (solicitud.getEstado() != EstadoListaEspera.ACTIVA) {
+            throw new BadRequestException("La solicitud ya no está activa");
+        }
+
+        solicitud.setEstado(EstadoListaEspera.CANCELADA);
+        listaEsperaRepository.save(solicitud);
+        indiceListaEspera.quitarTrasCommit(id);
+    }
+
+    public void quitarDelIndiceTrasCommit(List<Long> solicitudIds) {
+        solicitudIds.forEach(indiceListaEspera::quitarTrasCommit);
+    }
+
+    // Tras confirmarse la cancelación, ofrece el hueco a la solicitud compatible más antigua
+    // con una retención corta que el cliente confirma como cualquier otra
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void ofrecerHuecoLiberado(CitaCanceladaEvento evento) {
+        ofrecerHueco(evento.profesionalId(), evento.fechaHora(), evento.duracionMinutos(), evento.citaId());
+    }
+
+    // Una retención caducada o soltada devuelve su franja a la lista. Si era una oferta, el hueco
+    // pasa primero a la siguiente coincidencia y la solicitud vuelve después al índice si su ventana sigue abierta.
+    // Las caducidades llegan desde el hilo de la rueda temporal: la base de datos se toca en otro hilo.
+    @Async("agendaExecutor")
+    @EventListener
+    public void ofrecerRetencionLiberada(RetencionLiberadaEvento evento) {
+        ofrecerHueco(evento.profesionalId(), evento.fechaHora(), evento.duracionMinutos(), null);
+
+        indiceListaEspera.quitarOferta(evento.retencionId())
+                .flatMap(listaEsperaRepository::findById)
+                .filter(solicitud -> solicitud.getEstado() == EstadoListaEspera.OFRECIDA)
+                .ifPresent(solicitud -> {
+                    boolean vigente = solicitud.getVentanaFin().isAfter(LocalDateTime.now());
+                    solicitud.setEstado(vigente ? EstadoListaEspera.ACTIVA : EstadoListaEspera.CADUCADA);
+                    solicitud.setRetencionId(null);
+                    solicitud.setFechaOferta(null);
+                    listaEsperaRepository.save(solicitud);
+                    if (vigente) {
+                        indiceListaEspera.registrarTrasCommit(solicitud);
+                    }
+                    logger.info("Oferta {} de la solicitud {} no confirmada; solicitud {}",
+                            evento.retencionId(), solicitud.getId(), solicitud.getEstado());
+                });
+    }
+
+    // Se llama dentro de la transacción que convierte la retención en cita
+    public void marcarAtendida(Long retencionId) {
+        indiceListaEspera.solicitudOfrecida(retencionId)
+                .flatMap(listaEsperaRepository::findById)
+                .ifPresent(solicitud -> {
+                    solicitud.setEstado(EstadoListaEspera.ATENDIDA);
+                    listaEsperaRepository.save(solicitud);
+                    indiceListaEspera.quitarOfertaTrasCommit(retencionId);
+                    logger.info("Solicitud de lista de espera {} atendida con la retención {}", solicitud.getId(), retencionId);
+                });
+    }
+
+    private void ofrecerHueco(Long profesionalId, LocalDateTime fechaHoraHueco, int duracionMinutos, Long citaIdExcluir) {
+        Optional<IndiceListaEspera.Coincidencia> coincidencia = indiceListaEspera.mejorCoincidencia(
+                profesionalId, fechaHoraHueco, duracionMinutos);
+        if (coincidencia.isEmpty()) {
+            return;
+        }
+
+        IndiceListaEspera.Entrada entrada = coincidencia.get().entrada();
+        LocalDateTime fechaHora = coincidencia.get().fechaHora();
+        if (indiceAgenda.hayConflicto(entrada.profesionalId(), fechaHora, entrada.duracionMinutos(), citaIdExcluir)
+                || retencionesAgenda.hayConflicto(entrada.profesionalId(), fechaHora, entrada.duracionMinutos(), null)) {
+            logger.debug("El hueco del profesional {} a las {} ya no está libre", profesionalId, fechaHoraHueco);
+            return;
+        }
+
+        // Si otra cancelación ya tomó la solicitud, no se ofrece dos veces
+        if (!indiceListaEspera.quitar(entrada.id())) {
+            return;
+        }
+
+        RetencionesAgenda.Retencion retencion = retencionesAgenda.retener(entrada.usuarioId(),
+                entrada.profesionalId(), entrada.servicioId(), fechaHora,
+                entrada.duracionMinutos(), Duration.ofMinutes(minutosOferta));
+        // La solicitud y la retención se toman antes del commit para que otra cancelación no las repita;
+        // si la oferta no llega a guardarse, la solicitud vuelve al índice y la franja queda libre
+        TrasCommit.siNoConfirma(() -> {
+            retencionesAgenda.descartar(retencion.id());
+            indiceListaEspera.reponer(entrada);
+        });
+
+        listaEsperaRepository.findById(entrada.id()).ifPresent(solicitud -> {
+            solicitud.setEstado(EstadoListaEspera.OFRECIDA);
+            solicitud.setRetencionId(retencion.id());
+            solicitud.setFechaOferta(LocalDateTime.now());
+            listaEsperaRepository.save(solicitud);
+        });
+        indiceListaEspera.registrarOfertaTrasCommit(retencion.id(), entrada.id());
+
+        logger.info("Hueco del profesional {} ofrecido a la solicitud {} con retención {} a las {}",
+                profesionalId, entrada.id(), retencion.id(), fechaHora);
+    }
+
+    private ListaEsperaDTO convertirADTO(ListaEspera solicitud) {
+        return ListaEsperaDTO.builder()
+                .id(solicitud.getId())
+                .usuarioId(solicitud.getUsuario().getId())
+                .profesionalId(solicitud.getProfesional().getId())
+                .servicioId(solicitud.getServicio().getId())
+                .nombreServicio(solicitud.getServicio().getNombre())
+                .nombreProfesional(solicitud.getProfesional().getUsuario().getNombre())
+                .ventanaInicio(solicitud.getVentanaInicio())
+                .ventanaFin(solicitud.getVentanaFin())
+                .estado(solicitud.getEstado())
+                .retencionId(solicitud.getRetencionId())
+                .fechaOferta(solicitud.getFechaOferta())
+                .fechaCreacion(solicitud.getFechaCreacion())
+                .build();
+    }
+}
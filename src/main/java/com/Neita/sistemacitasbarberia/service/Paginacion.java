@@ -0,0 +1,98 @@
+package com.Neita.sistemacitasbarberia.service;
+
+import com.Neita.sistemacitasbarberia.dto.PaginaDTO;
+import com.Neita.sistemacitasbarberia.exception.BadRequestException;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+// Paginación por clave (keyset): cada página continúa tras la última fila de la anterior,
+// así el coste no depende de cuántas filas haya por delante como ocurre con OFFSET.
+// El cursor es opaco para el cliente: la clave de orden codificada en Base64.
+final class Paginacion {
+
+    static final int TAMANO_POR_DEFECTO = 20;
+    static final int TAMANO_MAXIMO = 100;
+
+    // Clave inicial para listados descendentes: cualquier fila real queda por detrás
+    private static final Cursor INICIO_DESCENDENTE = new Cursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    record Cursor(LocalDateTime fecha, Long id) {
+    }
+
+    private Paginacion() {
+    }
+
+    static int tamano(Integer solicitado) {
+        if (solicitado == null) {
+            return TAMANO_POR_DEFECTO;
+        }
+        if (solicitado < 1) {
+            throw new BadRequestException("El tamaño de página debe ser mayor que cero");
+        }
+        return Math.min(solicitado, TAMANO_MAXIMO);
+    }
+
+    // Se pide una fila de más para saber si existe una página siguiente sin contar el total
+    static Limit limite(int tamano) {
+        return Limit.of(tamano + 1);
+    }
+
+    static Cursor cursorDescendente(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return INICIO_DESCENDENTE;
+        }
+        String[] partes = decodificar(cursor).split("\\|", 2);
+        try {
+            return new Cursor(LocalDateTime.parse(partes[0]), Long.parseLong(partes[1]));
+        } catch (DateTimeParseException | ArrayIndexOutOfBoundsException | NumberFormatException ex) {
+            throw new BadRequestException("Cursor de paginación inválido");
+        }
+    }
+
+    static Long cursorAscendente(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(decodificar(cursor));
+        } catch (NumberFormatException ex) {
+            throw new BadRequestException("Cursor de paginación inválido");
+        }
+    }
+
+    static String codificar(LocalDateTime fecha, Long id) {
+        return codificar(fecha + "|" + id);
+    }
+
+    static String codificar(Long id) {
+        return codificar(String.valueOf(id));
+    }
+
+    static <E, T> PaginaDTO<T> pagina(List<E> filas, int tamano, Function<E, T> convertir, Function<E, String> cursorDe) {
+        boolean hayMas = filas.size() > tamano;
+        List<E> contenido = hayMas ? filas.subList(0, tamano) : filas;
+        return PaginaDTO.<T>builder()
+                .contenido(contenido.stream().map(convertir).toList())
+                .tamano(contenido.size())
+                .siguienteCursor(hayMas ? cursorDe.apply(contenido.get(tamano - 1)) : null)
+                .build();
+    }
+
+    private static String codificar(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodificar(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Cursor de paginación inválido");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.Neita.sistemacitasbarberia.service;
 
+import com.Neita.sistemacitasbarberia.dto.PaginaDTO;
 import com.Neita.sistemacitasbarberia.dto.ProductoDTO;
 import com.Neita.sistemacitasbarberia.entity.Producto;
 import com.Neita.sistemacitasbarberia.exception.BadRequestException;
@@ -37,11 +38,12 @@ public class ProductoService {
     }
 
     @Transactional(readOnly = true)
-    public List<ProductoDTO> obtenerTodos() {
-        logger.debug("Obteniendo todos los productos");
-        return productoRepository.findAll().stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public PaginaDTO<ProductoDTO> obtenerTodos(String cursor, Integer tamano) {
+        logger.debug("Obteniendo página de productos desde cursor: {}", cursor);
+        int limite = Paginacion.tamano(tamano);
+        List<Producto> productos = productoRepository.findPaginaPosteriorA(
+                Paginacion.cursorAscendente(cursor), Paginacion.limite(limite));
+        return Paginacion.pagina(productos, limite, this::convertirADTO, p -> Paginacion.codificar(p.getId()));
     }
 
     @Transactional(readOnly = true)
@@ -52,6 +54,12 @@ public class ProductoService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<ProductoDTO.ProductoSimpleDTO> obtenerDisponiblesSimples() {
+        logger.debug("Obteniendo listado simple de productos disponibles");
+        return productoRepository.findSimpleDisponibles();
+    }
+
     @Transactional(readOnly = true)
     public List<ProductoDTO> obtenerEnStock() {
         logger.debug("Obteniendo productos en stock");
@@ -1,6 +1,7 @@
 package com.Neita.sistemacitasbarberia.service;
 
 import com.Neita.sistemacitasbarberia.dto.ProfesionalDTO;
+import com.Neita.sistemacitasbarberia.dto.ReasignacionDTO;
 import com.Neita.sistemacitasbarberia.entity.Profesional;
 import com.Neita.sistemacitasbarberia.entity.Usuario;
 import com.Neita.sistemacitasbarberia.exception.BadRequestException;
@@ -29,6 +30,7 @@ public class ProfesionalService {
     
     private final ProfesionalRepository profesionalRepository;
     private final UsuarioRepository usuarioRepository;
+    private final CitaService citaService;
     private final ModelMapper modelMapper;
 
     @Transactional(readOnly = true)
@@ -64,6 +66,12 @@ public class ProfesionalService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<ProfesionalDTO.ProfesionalSimpleDTO> obtenerActivosSimples() {
+        logger.debug("Obteniendo listado simple de profesionales activos");
+        return profesionalRepository.findSimpleActivos();
+    }
+
     @Transactional(readOnly = true)
     public List<ProfesionalDTO> obtenerPorEspecialidad(String especialidad) {
         logger.debug("Buscando profesionales con especialidad: {}", especialidad);
@@ -152,7 +160,7 @@ public class ProfesionalService {
     }
 
     @CacheEvict(value = "profesionales", key = "#id")
-    public void desactivar(Long id) {
+    public ReasignacionDTO desactivar(Long id) {
         logger.info("Desactivando profesional con ID: {}", id);
         
         Profesional profesional = profesionalRepository.findById(id)
@@ -161,7 +169,11 @@ public class ProfesionalService {
         profesional.setActivo(false);
         profesionalRepository.save(profesional);
         
+        // Las citas futuras se reparten entre el resto del equipo en la misma transacción
+        ReasignacionDTO reasignacion = citaService.reasignarCitasFuturas(id);
+        
         logger.info("Profesional desactivado exitosamente");
+        return reasignacion;
     }
 
     @CacheEvict(value = "profesionales", key = "#id")
@@ -185,6 +197,7 @@ public class ProfesionalService {
             throw new ResourceNotFoundException("Profesional", "id", id);
         }
         
+        citaService.olvidarProfesionalTrasCommit(id);
         profesionalRepository.deleteById(id);
         logger.info("Profesional eliminado exitosamente");
     }
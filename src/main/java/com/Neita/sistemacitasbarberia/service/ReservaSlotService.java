@@ -0,0 +1,81 @@
+package com.Neita.sistemacitasbarberia.service;
+
+import com.Neita.sistemacitasbarberia.agenda.MapaSlots;
+import com.Neita.sistemacitasbarberia.entity.Cita;
+import com.Neita.sistemacitasbarberia.entity.ReservaSlot;
+import com.Neita.sistemacitasbarberia.exception.ConflictException;
+import com.Neita.sistemacitasbarberia.repository.ReservaSlotRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Escribe las franjas ocupadas por cada cita en la misma transacción que la cita
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class ReservaSlotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservaSlotService.class);
+
+    private final ReservaSlotRepository reservaSlotRepository;
+
+    public void reservar(Cita cita) {
+        reservar(List.of(cita));
+    }
+
+    // Escribe las franjas de todas las citas con un único flush
+    public void reservar(List<Cita> citas) {
+        List<ReservaSlot> slots = new ArrayList<>();
+        for (Cita cita : citas) {
+            for (LocalDateTime slot : slotsDe(cita.getFechaHora(), cita.getServicio().getDuracionEnMinutos())) {
+                slots.add(ReservaSlot.builder()
+                        .cita(cita)
+                        .profesional(cita.getProfesional())
+                        .slotInicio(slot)
+                        .build());
+            }
+        }
+
+        try {
+            reservaSlotRepository.saveAllAndFlush(slots);
+        } catch (DataIntegrityViolationException ex) {
+            logger.warn("Franja ya reservada al guardar {} citas", citas.size());
+            throw new ConflictException("El profesional ya tiene una cita programada en ese horario");
+        }
+    }
+
+    public void liberar(Long citaId) {
+        int liberadas = reservaSlotRepository.eliminarPorCita(citaId);
+        logger.debug("Liberadas {} franjas de la cita {}", liberadas, citaId);
+    }
+
+    public void liberar(Collection<Long> citaIds) {
+        if (citaIds.isEmpty()) {
+            return;
+        }
+        int liberadas = reservaSlotRepository.eliminarPorCitas(citaIds);
+        logger.debug("Liberadas {} franjas de {} citas", liberadas, citaIds.size());
+    }
+
+    // Franjas de 5 minutos que cubren [fechaHora, fechaHora + duración)
+    public static List<LocalDateTime> slotsDe(LocalDateTime fechaHora, int duracionMinutos) {
+        LocalDateTime inicio = fechaHora.truncatedTo(ChronoUnit.MINUTES)
+                .minusMinutes(fechaHora.getMinute() % MapaSlots.MINUTOS_POR_SLOT);
+        LocalDateTime fin = fechaHora.plusMinutes(duracionMinutos);
+        List<LocalDateTime> slots = new ArrayList<>();
+        for (LocalDateTime slot = inicio; slot.isBefore(fin); slot = slot.plusMinutes(MapaSlots.MINUTOS_POR_SLOT)) {
+            slots.add(slot);
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,119 @@
+package com.Neita.sistemacitasbarberia.service;
+
+import com.Neita.sistemacitasbarberia.agenda.HorariosCompilados;
+import com.Neita.sistemacitasbarberia.agenda.IndiceAgenda;
+import com.Neita.sistemacitasbarberia.agenda.RetencionesAgenda;
+import com.Neita.sistemacitasbarberia.dto.CitaDTO;
+import com.Neita.sistemacitasbarberia.dto.RetencionDTO;
+import com.Neita.sistemacitasbarberia.entity.BarberoServicio;
+import com.Neita.sistemacitasbarberia.exception.BadRequestException;
+import com.Neita.sistemacitasbarberia.exception.ConflictException;
+import com.Neita.sistemacitasbarberia.exception.ResourceNotFoundException;
+import com.Neita.sistemacitasbarberia.repository.BarberoServicioRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class RetencionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetencionService.class);
+
+    private final BarberoServicioRepository barberoServicioRepository;
+    private final IndiceAgenda indiceAgenda;
+    private final RetencionesAgenda retencionesAgenda;
+    private final HorariosCompilados horariosCompilados;
+    private final CitaService citaService;
+
+    @Value("${agenda.retenciones.minutos-por-defecto:5}")
+    private int minutosPorDefecto;
+
+    @Transactional(readOnly = true)
+    public RetencionDTO crear(RetencionDTO.CrearRetencionDTO crearDTO) {
+        logger.info("Reteniendo franja del profesional {} a las {}", crearDTO.getProfesionalId(), crearDTO.getFechaHora());
+
+        BarberoServicio barberoServicio = barberoServicioRepository
+                .findByProfesionalIdAndServicioId(crearDTO.getProfesionalId(), crearDTO.getServicioId())
+                .orElseThrow(() -> new BadRequestException("El profesional no ofrece este servicio"));
+
+        if (!barberoServicio.getDisponible()) {
+            throw new BadRequestException("El servicio no está disponible con este profesional");
+        }
+
+        int duracionMinutos = barberoServicio.getServicio().getDuracionEnMinutos();
+        if (!horariosCompilados.dentroDeJornada(crearDTO.getProfesionalId(), crearDTO.getFechaHora(), duracionMinutos)) {
+            throw new BadRequestException("El horario solicitado está fuera de la jornada del profesional");
+        }
+        if (indiceAgenda.hayConflicto(crearDTO.getProfesionalId(), crearDTO.getFechaHora(), duracionMinutos, null)
+                || retencionesAgenda.hayConflicto(crearDTO.getProfesionalId(), crearDTO.getFechaHora(), duracionMinutos, null)) {
+            throw new ConflictException("La franja solicitada ya no está disponible");
+        }
+
+        int minutos = crearDTO.getMinutos() != null ? crearDTO.getMinutos() : minutosPorDefecto;
+        RetencionesAgenda.Retencion retencion = retencionesAgenda.retener(crearDTO.getUsuarioId(),
+                crearDTO.getProfesionalId(), crearDTO.getServicioId(), crearDTO.getFechaHora(),
+                duracionMinutos, Duration.ofMinutes(minutos));
+
+        logger.info("Retención creada con ID: {} hasta {}", retencion.id(), retencion.expira());
+        return convertirADTO(retencion);
+    }
+
+    @Transactional(readOnly = true)
+    public RetencionDTO obtenerPorId(Long id) {
+        return convertirADTO(obtenerVigente(id));
+    }
+
+    // La cita se crea en su propia transacción; la retención se libera tras el commit
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CitaDTO confirmar(Long id, RetencionDTO.ConfirmarRetencionDTO confirmarDTO) {
+        logger.info("Confirmando retención con ID: {}", id);
+
+        RetencionesAgenda.Retencion retencion = obtenerVigente(id);
+
+        CitaDTO.CrearCitaDTO crearDTO = new CitaDTO.CrearCitaDTO(
+                retencion.fechaHora(),
+                confirmarDTO != null ? confirmarDTO.getNotas() : null,
+                retencion.usuarioId(),
+                retencion.servicioId(),
+                retencion.profesionalId());
+
+        CitaDTO cita = citaService.crear(crearDTO, id);
+        retencionesAgenda.consumir(id);
+
+        logger.info("Retención {} confirmada como cita {}", id, cita.getId());
+        return cita;
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void liberar(Long id) {
+        logger.info("Liberando retención con ID: {}", id);
+        if (!retencionesAgenda.liberar(id)) {
+            throw new ResourceNotFoundException("Retencion", "id", id);
+        }
+    }
+
+    private RetencionesAgenda.Retencion obtenerVigente(Long id) {
+        return retencionesAgenda.obtener(id)
+                .orElseThrow(() -> new ResourceNotFoundException("La retención no existe o ya expiró"));
+    }
+
+    private RetencionDTO convertirADTO(RetencionesAgenda.Retencion retencion) {
+        return RetencionDTO.builder()
+                .id(retencion.id())
+                .usuarioId(retencion.usuarioId())
+                .profesionalId(retencion.profesionalId())
+                .servicioId(retencion.servicioId())
+                .fechaHora(retencion.fechaHora())
+                .duracionMinutos(retencion.duracionMinutos())
+                .expira(retencion.expira())
+                .build();
+    }
+}
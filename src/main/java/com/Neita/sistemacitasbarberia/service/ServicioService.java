@@ -2,6 +2,7 @@ package com.Neita.sistemacitasbarberia.service;
 
 import com.Neita.sistemacitasbarberia.dto.ServicioDTO;
 import com.Neita.sistemacitasbarberia.entity.Servicio;
+import com.Neita.sistemacitasbarberia.exception.BadRequestException;
 import com.Neita.sistemacitasbarberia.exception.ConflictException;
 import com.Neita.sistemacitasbarberia.exception.ResourceNotFoundException;
 import com.Neita.sistemacitasbarberia.repository.ServicioRepository;
@@ -25,6 +26,7 @@ public class ServicioService {
     private static final Logger logger = LoggerFactory.getLogger(ServicioService.class);
     
     private final ServicioRepository servicioRepository;
+    private final CitaService citaService;
     private final ModelMapper modelMapper;
 
     @Transactional(readOnly = true)
@@ -76,6 +78,7 @@ public class ServicioService {
                 .nombre(servicioDTO.getNombre())
                 .descripcion(servicioDTO.getDescripcion())
                 .duracion(servicioDTO.getDuracion())
+                .duracionMinutos(parsearDuracion(servicioDTO.getDuracion()))
                 .imagenServicio(servicioDTO.getImagenServicio())
                 .activo(true)
                 .build();
@@ -96,6 +99,7 @@ public class ServicioService {
         servicio.setNombre(servicioDTO.getNombre());
         servicio.setDescripcion(servicioDTO.getDescripcion());
         servicio.setDuracion(servicioDTO.getDuracion());
+        servicio.setDuracionMinutos(parsearDuracion(servicioDTO.getDuracion()));
         
         if (servicioDTO.getImagenServicio() != null) {
             servicio.setImagenServicio(servicioDTO.getImagenServicio());
@@ -141,10 +145,19 @@ public class ServicioService {
             throw new ResourceNotFoundException("Servicio", "id", id);
         }
         
+        citaService.olvidarServicioTrasCommit(id);
         servicioRepository.deleteById(id);
         logger.info("Servicio eliminado exitosamente");
     }
 
+    private Integer parsearDuracion(String duracion) {
+        Integer minutos = Servicio.parsearDuracion(duracion);
+        if (minutos == null) {
+            throw new BadRequestException("La duración debe tener formato válido (ej: 30 min, 1 hora)");
+        }
+        return minutos;
+    }
+
     private ServicioDTO convertirADTO(Servicio servicio) {
         return modelMapper.map(servicio, ServicioDTO.class);
     }
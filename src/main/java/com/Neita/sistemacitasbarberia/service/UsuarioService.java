@@ -1,5 +1,6 @@
 package com.Neita.sistemacitasbarberia.service;
 
+import com.Neita.sistemacitasbarberia.dto.PaginaDTO;
 import com.Neita.sistemacitasbarberia.dto.UsuarioDTO;
 import com.Neita.sistemacitasbarberia.entity.Usuario;
 import com.Neita.sistemacitasbarberia.exception.BadRequestException;
@@ -27,6 +28,7 @@ public class UsuarioService {
     private static final Logger logger = LoggerFactory.getLogger(UsuarioService.class);
     
     private final UsuarioRepository usuarioRepository;
+    private final CitaService citaService;
     private final PasswordEncoder passwordEncoder;
     private final ModelMapper modelMapper;
 
@@ -48,11 +50,12 @@ public class UsuarioService {
     }
 
     @Transactional(readOnly = true)
-    public List<UsuarioDTO> obtenerTodos() {
-        logger.debug("Obteniendo todos los usuarios");
-        return usuarioRepository.findAll().stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public PaginaDTO<UsuarioDTO> obtenerTodos(String cursor, Integer tamano) {
+        logger.debug("Obteniendo página de usuarios desde cursor: {}", cursor);
+        int limite = Paginacion.tamano(tamano);
+        List<Usuario> usuarios = usuarioRepository.findPaginaPosteriorA(
+                Paginacion.cursorAscendente(cursor), Paginacion.limite(limite));
+        return Paginacion.pagina(usuarios, limite, this::convertirADTO, u -> Paginacion.codificar(u.getId()));
     }
 
     @Transactional(readOnly = true)
@@ -154,6 +157,7 @@ public class UsuarioService {
             throw new ResourceNotFoundException("Usuario", "id", id);
         }
         
+        citaService.olvidarUsuarioTrasCommit(id);
         usuarioRepository.deleteById(id);
         logger.info("Usuario eliminado exitosamente");
     }
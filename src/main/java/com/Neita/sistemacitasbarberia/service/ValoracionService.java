@@ -1,5 +1,6 @@
 package com.Neita.sistemacitasbarberia.service;
 
+import com.Neita.sistemacitasbarberia.dto.PaginaDTO;
 import com.Neita.sistemacitasbarberia.dto.ValoracionDTO;
 import com.Neita.sistemacitasbarberia.entity.Cita;
 import com.Neita.sistemacitasbarberia.entity.Profesional;
@@ -45,11 +46,14 @@ public class ValoracionService {
     }
 
     @Transactional(readOnly = true)
-    public List<ValoracionDTO> obtenerPorProfesional(Long profesionalId) {
-        logger.debug("Obteniendo valoraciones del profesional con ID: {}", profesionalId);
-        return valoracionRepository.findByProfesionalIdOrderByFechaDesc(profesionalId).stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public PaginaDTO<ValoracionDTO> obtenerPorProfesional(Long profesionalId, String cursor, Integer tamano) {
+        logger.debug("Obteniendo página de valoraciones del profesional con ID: {}", profesionalId);
+        int limite = Paginacion.tamano(tamano);
+        Paginacion.Cursor desde = Paginacion.cursorDescendente(cursor);
+        List<Valoracion> valoraciones = valoracionRepository.findPaginaByProfesionalAnteriorA(
+                profesionalId, desde.fecha(), desde.id(), Paginacion.limite(limite));
+        return Paginacion.pagina(valoraciones, limite, this::convertirADTO,
+                v -> Paginacion.codificar(v.getFechaValoracion(), v.getId()));
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,37 @@
+package db.migration;
+
+import com.Neita.sistemacitasbarberia.entity.Servicio;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Rellena duracion_minutos de los servicios que solo tenían el texto y la hace obligatoria.
+// En Java para reutilizar el mismo análisis del texto que la aplicación: las consultas nativas
+// que calculan el fin de una cita ya no necesitan ningún valor de respaldo.
+public class V5__duracion_minutos_obligatoria extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection conexion = context.getConnection();
+        try (Statement consulta = conexion.createStatement();
+             ResultSet filas = consulta.executeQuery(
+                     "SELECT id, duracion FROM servicio WHERE duracion_minutos IS NULL");
+             PreparedStatement actualizacion = conexion.prepareStatement(
+                     "UPDATE servicio SET duracion_minutos = ? WHERE id = ?")) {
+            while (filas.next()) {
+                Integer minutos = Servicio.parsearDuracion(filas.getString("duracion"));
+                actualizacion.setInt(1, minutos != null ? minutos : Servicio.DURACION_POR_DEFECTO_MINUTOS);
+                actualizacion.setLong(2, filas.getLong("id"));
+                actualizacion.addBatch();
+            }
+            actualizacion.executeBatch();
+        }
+        try (Statement alteracion = conexion.createStatement()) {
+            alteracion.execute("ALTER TABLE servicio MODIFY duracion_minutos INT NOT NULL");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+-- Esquema inicial del sistema de citas, tal como lo generaba Hibernate antes de Flyway.
+-- Las bases existentes se marcan en esta versión sin ejecutarla, así que no debe cambiar:
+-- todo lo posterior va en migraciones nuevas.
+
+CREATE TABLE usuario (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    nombre         VARCHAR(255) NOT NULL,
+    email          VARCHAR(255) NOT NULL,
+    password       VARCHAR(255) NOT NULL,
+    telefono       VARCHAR(20),
+    fecha_registro DATETIME(6)  NOT NULL,
+    activo         BIT(1)       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_usuario_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE profesional (
+    id                    BIGINT       NOT NULL AUTO_INCREMENT,
+    especialidad          VARCHAR(255) NOT NULL,
+    horario_disponible    VARCHAR(500),
+    biografia             TEXT,
+    foto_perfil           VARCHAR(255),
+    activo                BIT(1)       NOT NULL,
+    calificacion_promedio DOUBLE,
+    usuario_id            BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_profesional_usuario UNIQUE (usuario_id),
+    CONSTRAINT fk_profesional_usuario FOREIGN KEY (usuario_id) REFERENCES usuario (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE servicio (
+    id               BIGINT       NOT NULL AUTO_INCREMENT,
+    nombre           VARCHAR(255) NOT NULL,
+    descripcion      TEXT,
+    duracion         VARCHAR(50)  NOT NULL,
+    imagen_servicio  VARCHAR(255),
+    activo           BIT(1)       NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE barbero_servicio (
+    id               BIGINT      NOT NULL AUTO_INCREMENT,
+    profesional_id   BIGINT      NOT NULL,
+    servicio_id      BIGINT      NOT NULL,
+    precio           DOUBLE      NOT NULL,
+    disponible       BIT(1)      NOT NULL,
+    notas_especiales TEXT,
+    fecha_creacion   DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_barbero_servicio_profesional_servicio UNIQUE (profesional_id, servicio_id),
+    CONSTRAINT fk_barbero_servicio_profesional FOREIGN KEY (profesional_id) REFERENCES profesional (id),
+    CONSTRAINT fk_barbero_servicio_servicio FOREIGN KEY (servicio_id) REFERENCES servicio (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE cita (
+    id               BIGINT      NOT NULL AUTO_INCREMENT,
+    fecha_hora       DATETIME(6) NOT NULL,
+    estado           ENUM ('PENDIENTE', 'CONFIRMADA', 'EN_PROCESO', 'COMPLETADA', 'CANCELADA', 'NO_ASISTIO') NOT NULL,
+    notas            TEXT,
+    precio_final     DOUBLE,
+    fecha_creacion   DATETIME(6) NOT NULL,
+    fecha_completada DATETIME(6),
+    usuario_id       BIGINT      NOT NULL,
+    servicio_id      BIGINT      NOT NULL,
+    profesional_id   BIGINT      NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_cita_usuario FOREIGN KEY (usuario_id) REFERENCES usuario (id),
+    CONSTRAINT fk_cita_servicio FOREIGN KEY (servicio_id) REFERENCES servicio (id),
+    CONSTRAINT fk_cita_profesional FOREIGN KEY (profesional_id) REFERENCES profesional (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE valoracion (
+    id               BIGINT      NOT NULL AUTO_INCREMENT,
+    calificacion     INT         NOT NULL,
+    comentario       TEXT,
+    fecha_valoracion DATETIME(6) NOT NULL,
+    profesional_id   BIGINT      NOT NULL,
+    usuario_id       BIGINT      NOT NULL,
+    cita_id          BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_valoracion_cita UNIQUE (cita_id),
+    CONSTRAINT fk_valoracion_profesional FOREIGN KEY (profesional_id) REFERENCES profesional (id),
+    CONSTRAINT fk_valoracion_usuario FOREIGN KEY (usuario_id) REFERENCES usuario (id),
+    CONSTRAINT fk_valoracion_cita FOREIGN KEY (cita_id) REFERENCES cita (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE galeria (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    titulo         VARCHAR(255) NOT NULL,
+    descripcion    TEXT,
+    url_imagen     VARCHAR(255) NOT NULL,
+    fecha_subida   DATETIME(6)  NOT NULL,
+    visible        BIT(1)       NOT NULL,
+    profesional_id BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_galeria_profesional FOREIGN KEY (profesional_id) REFERENCES profesional (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE producto (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    nombre          VARCHAR(255) NOT NULL,
+    descripcion     TEXT,
+    precio          DOUBLE       NOT NULL,
+    stock           INT          NOT NULL,
+    imagen_producto VARCHAR(255),
+    disponible      BIT(1)       NOT NULL,
+    marca           VARCHAR(100),
+    categoria       VARCHAR(100),
+    fecha_creacion  DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,66 @@
+-- Columnas y tablas de la agenda añadidas tras el esquema inicial. Se aplica igual sobre
+-- una base creada por V1 que sobre una base existente marcada en la versión 1.
+
+-- Duración estructurada del servicio; las filas antiguas la siguen derivando del texto
+ALTER TABLE servicio ADD COLUMN duracion_minutos INT AFTER duracion;
+
+ALTER TABLE cita
+    ADD COLUMN fecha_modificacion      DATETIME(6) AFTER fecha_completada,
+    ADD COLUMN requiere_reprogramacion BIT(1) NOT NULL DEFAULT 0 AFTER fecha_modificacion;
+
+-- Una fila por franja ocupada: la restricción única impide dobles reservas entre nodos.
+-- Las tablas de agenda se borran con su profesional, usuario, servicio o cita: esas entidades
+-- se eliminan con deleteById y JPA solo conoce sus propias relaciones en cascada.
+CREATE TABLE reserva_slot (
+    id             BIGINT      NOT NULL AUTO_INCREMENT,
+    slot_inicio    DATETIME(6) NOT NULL,
+    profesional_id BIGINT      NOT NULL,
+    cita_id        BIGINT      NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_reserva_slot_profesional_inicio UNIQUE (profesional_id, slot_inicio),
+    CONSTRAINT fk_reserva_slot_profesional FOREIGN KEY (profesional_id) REFERENCES profesional (id) ON DELETE CASCADE,
+    CONSTRAINT fk_reserva_slot_cita FOREIGN KEY (cita_id) REFERENCES cita (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+CREATE TABLE lista_espera (
+    id             BIGINT      NOT NULL AUTO_INCREMENT,
+    ventana_inicio DATETIME(6) NOT NULL,
+    ventana_fin    DATETIME(6) NOT NULL,
+    estado         ENUM ('ACTIVA', 'OFRECIDA', 'ATENDIDA', 'CANCELADA', 'CADUCADA') NOT NULL,
+    retencion_id   BIGINT,
+    fecha_oferta   DATETIME(6),
+    fecha_creacion DATETIME(6) NOT NULL,
+    usuario_id     BIGINT      NOT NULL,
+    servicio_id    BIGINT      NOT NULL,
+    profesional_id BIGINT      NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_lista_espera_usuario FOREIGN KEY (usuario_id) REFERENCES usuario (id) ON DELETE CASCADE,
+    CONSTRAINT fk_lista_espera_servicio FOREIGN KEY (servicio_id) REFERENCES servicio (id) ON DELETE CASCADE,
+    CONSTRAINT fk_lista_espera_profesional FOREIGN KEY (profesional_id) REFERENCES profesional (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+CREATE TABLE horario_profesional (
+    id             BIGINT  NOT NULL AUTO_INCREMENT,
+    dia_semana     ENUM ('MONDAY', 'TUESDAY', 'WEDNESDAY', 'THURSDAY', 'FRIDAY', 'SATURDAY', 'SUNDAY') NOT NULL,
+    hora_inicio    TIME(6) NOT NULL,
+    hora_fin       TIME(6) NOT NULL,
+    tipo           ENUM ('TURNO', 'DESCANSO') NOT NULL,
+    profesional_id BIGINT  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_horario_profesional_profesional FOREIGN KEY (profesional_id) REFERENCES profesional (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+-- Un profesional nulo aplica la excepción a toda la barbería
+CREATE TABLE excepcion_horario (
+    id             BIGINT      NOT NULL AUTO_INCREMENT,
+    fecha_inicio   DATE        NOT NULL,
+    fecha_fin      DATE        NOT NULL,
+    tipo           ENUM ('CERRADO', 'HORARIO_REDUCIDO', 'TURNO_EXTRA') NOT NULL,
+    hora_inicio    TIME(6),
+    hora_fin       TIME(6),
+    motivo         VARCHAR(255),
+    fecha_creacion DATETIME(6) NOT NULL,
+    profesional_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_excepcion_horario_profesional FOREIGN KEY (profesional_id) REFERENCES profesional (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
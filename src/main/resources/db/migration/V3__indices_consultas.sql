@@ -0,0 +1,37 @@
+-- Índices compuestos alineados con las consultas de los repositorios. InnoDB añade la clave
+-- primaria al final de cada índice secundario, así que (x, fecha) sirve también a las
+-- páginas por cursor sobre (fecha, id).
+
+-- Agenda del profesional: citas activas por rango, próximas citas y validación de solapes
+CREATE INDEX idx_cita_profesional_fecha_estado ON cita (profesional_id, fecha_hora, estado);
+
+-- Próximas citas y listados del cliente
+CREATE INDEX idx_cita_usuario_fecha ON cita (usuario_id, fecha_hora);
+
+-- Historial del cliente: citas completadas ordenadas por fecha de finalización
+CREATE INDEX idx_cita_usuario_estado_completada ON cita (usuario_id, estado, fecha_completada);
+
+-- Listado paginado general y exportación por rango de fechas
+CREATE INDEX idx_cita_fecha_hora ON cita (fecha_hora);
+
+-- Reposición de la agenda en memoria desde la última instantánea
+CREATE INDEX idx_cita_fecha_modificacion ON cita (fecha_modificacion);
+
+-- Valoraciones de un profesional de la más reciente a la más antigua
+CREATE INDEX idx_valoracion_profesional_fecha ON valoracion (profesional_id, fecha_valoracion);
+
+-- Galería visible general y por profesional, de la más reciente a la más antigua
+CREATE INDEX idx_galeria_visible_fecha ON galeria (visible, fecha_subida);
+CREATE INDEX idx_galeria_profesional_visible_fecha ON galeria (profesional_id, visible, fecha_subida);
+
+-- Profesionales que ofrecen un servicio disponible
+CREATE INDEX idx_barbero_servicio_servicio_disponible ON barbero_servicio (servicio_id, disponible);
+
+-- Solicitudes vigentes de la lista de espera
+CREATE INDEX idx_lista_espera_estado_ventana ON lista_espera (estado, ventana_fin);
+
+-- Horario semanal de un profesional en orden de día y hora
+CREATE INDEX idx_horario_profesional_dia ON horario_profesional (profesional_id, dia_semana, hora_inicio);
+
+-- Excepciones vigentes desde una fecha
+CREATE INDEX idx_excepcion_horario_fecha_fin ON excepcion_horario (fecha_fin);
@@ -0,0 +1,16 @@
+-- Tabla de generadores para las entidades que se insertan en lote. Cada fila guarda el primer
+-- identificador del próximo bloque (optimizador pooled-lo): Hibernate reserva el bloque con una
+-- sola actualización y asigna los identificadores en memoria, lo que permite agrupar los INSERT.
+CREATE TABLE id_generador (
+    entidad      VARCHAR(255) NOT NULL,
+    siguiente_id BIGINT,
+    PRIMARY KEY (entidad)
+) ENGINE = InnoDB;
+
+-- Se parte del máximo actual para no chocar con filas creadas por AUTO_INCREMENT
+INSERT INTO id_generador (entidad, siguiente_id) SELECT 'cita', COALESCE(MAX(id), 0) + 1 FROM cita;
+INSERT INTO id_generador (entidad, siguiente_id) SELECT 'valoracion', COALESCE(MAX(id), 0) + 1 FROM valoracion;
+INSERT INTO id_generador (entidad, siguiente_id) SELECT 'galeria', COALESCE(MAX(id), 0) + 1 FROM galeria;
+INSERT INTO id_generador (entidad, siguiente_id) SELECT 'barbero_servicio', COALESCE(MAX(id), 0) + 1 FROM barbero_servicio;
+INSERT INTO id_generador (entidad, siguiente_id) SELECT 'producto', COALESCE(MAX(id), 0) + 1 FROM producto;
+INSERT INTO id_generador (entidad, siguiente_id) SELECT 'reserva_slot', COALESCE(MAX(id), 0) + 1 FROM reserva_slot;